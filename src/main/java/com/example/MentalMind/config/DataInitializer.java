@@ -6,6 +6,7 @@ import com.example.MentalMind.model.Feedback;
 import com.example.MentalMind.model.CounselorResponse;
 import com.example.MentalMind.model.Appointment;
 import com.example.MentalMind.model.SelfAssessmentResult;
+import com.example.MentalMind.model.StressLevel;
 import com.example.MentalMind.model.CounselorSettings;
 import com.example.MentalMind.model.LearningModule;
 import com.example.MentalMind.model.LearningMaterial;
@@ -28,6 +29,9 @@ import com.example.MentalMind.repository.ForumCommentRepository;
 import com.example.MentalMind.repository.ForumPostLikeRepository;
 import com.example.MentalMind.repository.ForumPostFlagRepository;
 import com.example.MentalMind.service.ResourceService;
+import com.example.MentalMind.service.ForumService;
+import com.example.MentalMind.service.StudentActivityService;
+import com.example.MentalMind.service.MoodRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -88,6 +92,15 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private ForumPostFlagRepository forumPostFlagRepository;
 
+    @Autowired
+    private StudentActivityService studentActivityService;
+
+    @Autowired
+    private ForumService forumService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
     @Override
     public void run(String... args) throws Exception {
         System.out.println(LOG_PREFIX + " ========== Starting Data Initialization ==========");
@@ -149,6 +162,26 @@ public class DataInitializer implements CommandLineRunner {
             System.out.println(LOG_PREFIX + " Skipping forum posts initialization (no students available)");
         }
 
+        // Older databases may hold duplicate bookmarks that kept ddl-auto from adding the unique key
+        if (resourceService.addBookmarkUniqueKeyIfMissing()) {
+            System.out.println(LOG_PREFIX + " ✓ Migrated resource bookmarks to one row per (user, resource)");
+        }
+
+        // Seeded comments bypass ForumService, so recompute the denormalized comment counts once
+        int recounted = forumService.recountCommentsIfStale();
+        if (recounted > 0) {
+            System.out.println(LOG_PREFIX + " ✓ Recounted comments on " + recounted + " forum post(s)");
+        }
+
+        // Seeded moods and assessments bypass the services, so build any missing activity snapshots
+        int snapshots = studentActivityService.rebuildMissing();
+        System.out.println(LOG_PREFIX + " ✓ Built " + snapshots + " student activity snapshot(s)");
+
+        // Load mood history into the trend rollups the first time they are used
+        if (moodRollupService.backfillIfEmpty()) {
+            System.out.println(LOG_PREFIX + " ✓ Backfilled mood trend rollups");
+        }
+
         System.out.println(LOG_PREFIX + " ========== Data Initialization Complete ==========");
     }
 
@@ -692,14 +725,7 @@ public class DataInitializer implements CommandLineRunner {
             }
 
             // Determine stress level based on score
-            String stressLevel;
-            if (score <= 13) {
-                stressLevel = "LOW";
-            } else if (score <= 26) {
-                stressLevel = "MODERATE";
-            } else {
-                stressLevel = "HIGH";
-            }
+            String stressLevel = StressLevel.fromScore(score).name();
 
             SelfAssessmentResult result = new SelfAssessmentResult();
             result.setUser(student);
@@ -10,23 +10,36 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PathVariable;
 import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
+import com.example.MentalMind.dto.ResourceCard;
 import org.springframework.http.HttpStatus;
 
+import com.example.MentalMind.dto.ForumFeedItem;
 import com.example.MentalMind.model.Feedback;
 import com.example.MentalMind.model.CounselorResponse;
 import com.example.MentalMind.model.CounselorSettings;
 import com.example.MentalMind.model.User;
 import com.example.MentalMind.model.ForumPost;
+import com.example.MentalMind.model.MoodRollup;
 import com.example.MentalMind.service.FeedbackService;
 import com.example.MentalMind.service.DashboardService;
 import com.example.MentalMind.service.CounselorSettingsService;
 import com.example.MentalMind.service.StudentOverviewService;
 import com.example.MentalMind.service.ForumService;
+import com.example.MentalMind.service.ForumPurgeService;
+import com.example.MentalMind.service.ModerationQueueService;
+import com.example.MentalMind.service.ReportExportService;
+import com.example.MentalMind.service.AssessmentAnalyticsService;
+import com.example.MentalMind.service.AppointmentLifecycleService;
 import com.example.MentalMind.repository.CounselorResponseRepository;
 import com.example.MentalMind.repository.UserRepository;
 import org.springframework.ui.Model;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -62,6 +75,21 @@ public class CounselorController {
     @Autowired
     private ForumService forumService;
 
+    @Autowired
+    private ForumPurgeService forumPurgeService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private AssessmentAnalyticsService assessmentAnalyticsService;
+
+    @Autowired
+    private AppointmentLifecycleService appointmentLifecycleService;
+
     @GetMapping("/dashboard")
     public String dashboard(Model model, HttpSession session) {
         Long userId = (Long) session.getAttribute("userId");
@@ -205,6 +233,25 @@ public class CounselorController {
         }
     }
 
+    @GetMapping("/api/mood-trends/campus")
+    @ResponseBody
+    public ResponseEntity<?> getCampusMoodTrend(@RequestParam(defaultValue = "week") String granularity,
+            @RequestParam(defaultValue = "12") int periods, HttpSession session) {
+        if (session.getAttribute("isAuthenticated") == null || !"counselor".equals(session.getAttribute("userRole"))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("success", false));
+        }
+        try {
+            // Daily series up to a year, weekly up to two years
+            String bucket = "day".equalsIgnoreCase(granularity) ? MoodRollup.DAY : MoodRollup.WEEK;
+            int limit = MoodRollup.DAY.equals(bucket) ? 366 : 104;
+            java.util.List<Map<String, Object>> trend = dashboardService.getCampusMoodTrend(
+                    bucket, Math.max(1, Math.min(periods, limit)));
+            return ResponseEntity.ok(Map.of("success", true, "data", trend));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("success", false));
+        }
+    }
+
     @GetMapping("/api/dashboard/upcoming-appointments")
     @ResponseBody
     public ResponseEntity<?> getDashboardUpcomingAppointments(HttpSession session) {
@@ -262,6 +309,23 @@ public class CounselorController {
         }
     }
 
+    @GetMapping("/api/assessment-analytics")
+    @ResponseBody
+    public ResponseEntity<?> getAssessmentAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpSession session) {
+        if (session.getAttribute("isAuthenticated") == null || !"counselor".equals(session.getAttribute("userRole"))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("success", false));
+        }
+        try {
+            Map<String, Object> data = assessmentAnalyticsService.getAnalytics(from, to).toMap();
+            return ResponseEntity.ok(Map.of("success", true, "data", data));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("success", false));
+        }
+    }
+
     @GetMapping("/api/performance-metrics")
     @ResponseBody
     public ResponseEntity<?> getPerformanceMetrics(HttpSession session) {
@@ -276,6 +340,16 @@ public class CounselorController {
         }
     }
 
+    // Overdue-appointment sweep metrics since startup
+    @GetMapping("/api/appointment-sweep-stats")
+    @ResponseBody
+    public ResponseEntity<?> getAppointmentSweepStats(HttpSession session) {
+        if (session.getAttribute("isAuthenticated") == null || !"counselor".equals(session.getAttribute("userRole"))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("success", false));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "data", appointmentLifecycleService.getSweepStats()));
+    }
+
     @GetMapping("/appointments")
     public String appointments(Model model, HttpSession session) {
         Long userId = (Long) session.getAttribute("userId");
@@ -457,13 +531,17 @@ public class CounselorController {
             Model model,
             HttpSession session,
             @RequestParam(name = "search", required = false) String search,
-            @RequestParam(name = "filter", required = false) String filter) {
+            @RequestParam(name = "filter", required = false) String filter,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         if (session.getAttribute("isAuthenticated") == null || !"counselor".equals(session.getAttribute("userRole"))) {
             return "redirect:/login";
         }
 
-        java.util.List<java.util.Map<String, Object>> students = studentOverviewService.getStudentsOverview(search, filter);
-        model.addAttribute("students", students);
+        StudentOverviewService.StudentOverviewPage page = studentOverviewService.getStudentsOverviewPage(
+                search, filter, cursor, StudentOverviewService.PAGE_SIZE);
+        model.addAttribute("students", page.getStudents());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("isFirstPage", cursor == null || cursor.isEmpty());
         model.addAttribute("searchQuery", search != null ? search : "");
         model.addAttribute("filterOption", filter != null ? filter : "");
         return "counselor/students";
@@ -569,18 +647,18 @@ public class CounselorController {
     }
 
     // API endpoints for resources (used by JavaScript on the resources management page)
+    // Card listing without content; answers 304 while the catalog version matches If-None-Match
     @GetMapping("/api/resources")
     @ResponseBody
-    public java.util.List<com.example.MentalMind.model.Resource> getResources(
-            @RequestParam(required = false) String type,
+    public ResponseEntity<java.util.List<ResourceCard>> getResources(@RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
             @RequestParam(required = false) String search) {
-        if (search != null && !search.trim().isEmpty()) {
-            return resourceService.searchResources(search.trim());
-        } else if (type != null && !type.equals("all")) {
-            return resourceService.getResourcesByType(type);
-        } else {
-            return resourceService.getAllResources();
-        }
+        // Read the version first so a concurrent write can only make the ETag older than the body
+        String etag = "\"" + resourceService.getCatalogVersion() + "\"";
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(resourceService.listResources(type, category, search));
     }
 
     @GetMapping("/api/resources/{id}")
@@ -593,7 +671,8 @@ public class CounselorController {
     @GetMapping("/forum")
     public String forum(Model model, HttpSession session,
                        @RequestParam(required = false) String category,
-                       @RequestParam(required = false) String sort) {
+                       @RequestParam(required = false) String sort,
+                       @RequestParam(required = false) String cursor) {
         Long userId = (Long) session.getAttribute("userId");
         if (userId == null) {
             return "redirect:/login";
@@ -606,51 +685,36 @@ public class CounselorController {
             model.addAttribute("currentUser", user.get());
         }
 
-        // Get approved posts (like student view)
-        List<ForumPost> posts = forumService.getApprovedPosts();
-        
-        // Filter by category if specified
-        if (category != null && !category.equals("all")) {
-            posts = posts.stream()
-                .filter(p -> p.getCategory().equalsIgnoreCase(category))
-                .collect(java.util.stream.Collectors.toList());
-        }
-        
-        // Sort posts
-        if ("likes".equals(sort)) {
-            posts = posts.stream()
-                .sorted((a, b) -> Integer.compare(b.getLikeCount(), a.getLikeCount()))
-                .collect(java.util.stream.Collectors.toList());
-        } else {
-            posts = posts.stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .collect(java.util.stream.Collectors.toList());
-        }
+        // One page of approved posts (like student view), filtered and sorted in the database
+        ForumService.ForumFeedPage page = forumService.getFeedPage(category, sort, null, cursor, ForumService.FEED_PAGE_SIZE);
+        List<ForumFeedItem> posts = page.getPosts();
         
         // Check which posts the user has already flagged
         if (user.isPresent()) {
-            java.util.Map<Long, Boolean> userFlaggedPosts = new java.util.HashMap<>();
-            for (ForumPost post : posts) {
-                boolean alreadyFlagged = forumService.hasUserFlaggedPost(post, user.get());
-                userFlaggedPosts.put(post.getId(), alreadyFlagged);
-            }
-            model.addAttribute("userFlaggedPosts", userFlaggedPosts);
+            ForumService.ViewerState viewerState = forumService.resolveViewerState(posts, user.get());
+            model.addAttribute("userFlaggedPostIds", viewerState.getFlaggedPostIds());
         }
         
         model.addAttribute("posts", posts);
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("isFirstPage", cursor == null || cursor.isBlank());
         model.addAttribute("selectedCategory", category != null ? category : "all");
         model.addAttribute("sortBy", sort);
 
         // Get moderation statistics for badge
-        model.addAttribute("pendingCount", forumService.countPendingPosts());
-        model.addAttribute("flaggedCount", forumService.countFlaggedPosts());
-        model.addAttribute("moderationCount", forumService.countPendingPosts() + forumService.countFlaggedPosts());
+        ModerationQueueService.BadgeCounts counts = moderationQueueService.getBadgeCounts();
+        model.addAttribute("pendingCount", counts.getPendingCount());
+        model.addAttribute("flaggedCount", counts.getFlaggedCount());
+        model.addAttribute("moderationCount", counts.getTotal());
 
         return "counselor/forum";
     }
 
     @GetMapping("/forum/moderation")
-    public String forumModeration(Model model, HttpSession session) {
+    public String forumModeration(Model model, HttpSession session,
+                                  @RequestParam(defaultValue = "flagged") String tab,
+                                  @RequestParam(defaultValue = "0") int flaggedPage,
+                                  @RequestParam(defaultValue = "0") int pendingPage) {
         Long userId = (Long) session.getAttribute("userId");
         if (userId == null) {
             return "redirect:/login";
@@ -662,30 +726,42 @@ public class CounselorController {
             model.addAttribute("userEmail", user.get().getEmail());
         }
 
-        // Combine flagged and pending posts for moderation view
-        List<ForumPost> flaggedPosts = forumService.getFlaggedPosts();
-        List<ForumPost> pendingPosts = forumService.getPostsForModeration();
-        List<ForumPost> allModerationPosts = new java.util.ArrayList<>();
-        allModerationPosts.addAll(flaggedPosts);
-        allModerationPosts.addAll(pendingPosts);
-        
-        model.addAttribute("moderationPosts", allModerationPosts);
+        // One page of each queue; flagged posts are ordered by priority
+        ModerationQueueService.QueuePage flagged = moderationQueueService.getFlaggedQueue(
+                flaggedPage, ModerationQueueService.QUEUE_PAGE_SIZE);
+        ModerationQueueService.QueuePage pending = moderationQueueService.getPendingQueue(
+                pendingPage, ModerationQueueService.QUEUE_PAGE_SIZE);
+        model.addAttribute("flaggedPosts", flagged.getPosts());
+        model.addAttribute("flaggedPage", flagged.getPage());
+        model.addAttribute("flaggedHasMore", flagged.hasMore());
+        model.addAttribute("pendingPosts", pending.getPosts());
+        model.addAttribute("pendingPage", pending.getPage());
+        model.addAttribute("pendingHasMore", pending.hasMore());
+        model.addAttribute("activeTab", "pending".equals(tab) ? "pending" : "flagged");
 
         // Get statistics
-        model.addAttribute("pendingCount", forumService.countPendingPosts());
-        model.addAttribute("flaggedCount", forumService.countFlaggedPosts());
+        ModerationQueueService.BadgeCounts counts = moderationQueueService.getBadgeCounts();
+        model.addAttribute("pendingCount", counts.getPendingCount());
+        model.addAttribute("flaggedCount", counts.getFlaggedCount());
 
         return "counselor/forum-moderation";
     }
 
     @GetMapping("/forum/{postId}")
-    public String forumDetail(@PathVariable Long postId, Model model, HttpSession session) {
+    public String forumDetail(@PathVariable Long postId, Model model, HttpSession session,
+                              @RequestParam(required = false) String cursor) {
         Optional<ForumPost> post = forumService.getPostById(postId);
         if (post.isEmpty()) {
             return "redirect:/counselor/forum";
         }
 
         model.addAttribute("post", post.get());
+
+        // One page of comments, oldest first
+        ForumService.CommentPage commentPage = forumService.getCommentPage(postId, false, cursor, ForumService.COMMENT_PAGE_SIZE);
+        model.addAttribute("comments", commentPage.getComments());
+        model.addAttribute("nextCursor", commentPage.getNextCursor());
+        model.addAttribute("isFirstPage", cursor == null || cursor.isBlank());
         
         // Add flag information if post is flagged
         if (post.get().getFlagCount() > 0) {
@@ -757,6 +833,28 @@ public class CounselorController {
         }
     }
 
+    @PostMapping("/forum/bulk-delete")
+    @ResponseBody
+    public Map<String, Object> bulkDeletePosts(@RequestParam List<Long> postIds, HttpSession session) {
+        if (session.getAttribute("isAuthenticated") == null || !"counselor".equals(session.getAttribute("userRole"))) {
+            return Map.of("status", "error", "message", "Not authorized");
+        }
+
+        try {
+            ForumPurgeService.PurgeReport report = forumPurgeService.purgePosts(postIds);
+            return Map.of(
+                "status", "success",
+                "message", "Deleted " + report,
+                "posts", report.getPosts(),
+                "comments", report.getComments(),
+                "likes", report.getLikes(),
+                "flags", report.getFlags()
+            );
+        } catch (Exception e) {
+            return Map.of("status", "error", "message", e.getMessage());
+        }
+    }
+
     @PostMapping("/forum/remove-flags")
     @ResponseBody
     public Map<String, Object> removeFlags(@RequestParam Long postId, HttpSession session) {
@@ -774,10 +872,47 @@ public class CounselorController {
     }
 
     @GetMapping("/reports")
-    public String reports() {
+    public String reports(HttpSession session, Model model) {
+        LocalDate today = LocalDate.now();
+        model.addAttribute("datasets", ReportExportService.DATASETS);
+        model.addAttribute("defaultFrom", today.minusDays(ReportExportService.DEFAULT_RANGE_DAYS));
+        model.addAttribute("defaultTo", today);
+        model.addAttribute("counselors", userRepository.findByRole("counselor"));
+        model.addAttribute("currentCounselorId", session.getAttribute("userId"));
         return "counselor/reports";
     }
 
+    // Stream a report dataset as a CSV or NDJSON download; rows go straight from the database to the response
+    @GetMapping("/reports/export")
+    public void exportReport(@RequestParam String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long counselorId,
+            HttpSession session, HttpServletResponse response) throws IOException {
+        if (session.getAttribute("isAuthenticated") == null || session.getAttribute("userRole") == null
+                || !"counselor".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Forbidden");
+            return;
+        }
+        if (!ReportExportService.DATASETS.contains(dataset) || !ReportExportService.FORMATS.contains(format)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown dataset or format");
+            return;
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(ReportExportService.DEFAULT_RANGE_DAYS);
+        if (start.isAfter(end)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Start date is after end date");
+            return;
+        }
+
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType("csv".equals(format) ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=\""
+                + ReportExportService.fileName(dataset, format, start, end) + "\"");
+        reportExportService.export(dataset, format, start, end, counselorId, response.getWriter());
+    }
+
     @GetMapping("/feedback/recent")
     @ResponseBody
     public ResponseEntity<?> recentFeedback(HttpSession session) {
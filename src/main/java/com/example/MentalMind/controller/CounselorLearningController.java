@@ -5,6 +5,7 @@ import com.example.MentalMind.model.LearningMaterial;
 import com.example.MentalMind.model.MaterialType;
 import com.example.MentalMind.repository.LearningModuleRepository;
 import com.example.MentalMind.repository.LearningMaterialRepository;
+import com.example.MentalMind.service.LearningProgressService;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +28,9 @@ public class CounselorLearningController {
     @Autowired
     private LearningMaterialRepository materialRepository;
     
+    @Autowired
+    private LearningProgressService learningProgressService;
+    
     @GetMapping
     public String viewLearningModules(HttpSession session, Model model) {
         Long counselorId = (Long) session.getAttribute("userId");
@@ -67,6 +71,7 @@ public class CounselorLearningController {
             module.setIsActive(true);
             
             moduleRepository.save(module);
+            learningProgressService.invalidateAll();
             logger.info("Module created: {} by counselor: {}", moduleTitle, counselorId);
             
             return "redirect:/counselor/learning";
@@ -146,6 +151,7 @@ public class CounselorLearningController {
             material.setIsActive(true);
             
             materialRepository.save(material);
+            learningProgressService.invalidateAll();
             logger.info("Material added: {} to module: {} by counselor: {}", materialTitle, moduleId, counselorId);
             
             return "redirect:/counselor/learning/module/" + moduleId;
@@ -171,6 +177,7 @@ public class CounselorLearningController {
             LearningModule module = moduleOpt.get();
             module.setIsActive(false);
             moduleRepository.save(module);
+            learningProgressService.invalidateAll();
             logger.info("Module deleted: {} by counselor: {}", moduleId, counselorId);
         }
         
@@ -305,6 +312,7 @@ public class CounselorLearningController {
             Long moduleId = material.getModule().getId();
             material.setIsActive(false);
             materialRepository.save(material);
+            learningProgressService.invalidateAll();
             logger.info("Material deleted: {} by counselor: {}", materialId, counselorId);
             
             return "redirect:/counselor/learning/module/" + moduleId;
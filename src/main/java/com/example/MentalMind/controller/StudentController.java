@@ -1,5 +1,7 @@
 package com.example.MentalMind.controller;
 
+import com.example.MentalMind.dto.ForumFeedItem;
+import com.example.MentalMind.dto.MoodDayRow;
 import com.example.MentalMind.model.MoodEntry;
 import com.example.MentalMind.model.Feedback;
 import com.example.MentalMind.model.Appointment;
@@ -33,6 +35,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
+import com.example.MentalMind.dto.BookmarkedResourceCard;
+import com.example.MentalMind.dto.ResourceCard;
 import org.springframework.http.HttpStatus;
 
 import jakarta.servlet.http.HttpSession;
@@ -107,7 +112,7 @@ public class StudentController {
             }
 
             // Get mood entries as a map keyed by date (yyyy-MM-dd)
-            java.util.Map<String, MoodEntry> moodMap = moodService.getWeeklyMoodsMap(userId);
+            java.util.Map<String, MoodDayRow> moodMap = moodService.getWeekCalendar(userId);
             model.addAttribute("moodMap", moodMap);
 
             // Get mood statistics
@@ -149,9 +154,10 @@ public class StudentController {
             List<LearningModule> modules = learningModuleRepository.findByIsActiveTrue();
             model.addAttribute("modules", modules);
 
-            // Get progress for all modules
+            // Progress and active material counts for all modules (one cached grouped query)
             Map<Long, Integer> progressMap = learningProgressService.getAllModulesProgress(userId, modules);
             model.addAttribute("progressMap", progressMap);
+            model.addAttribute("moduleProgress", learningProgressService.getProgressVector(userId));
         }
 
         return "student/learning";
@@ -262,13 +268,11 @@ public class StudentController {
             model.addAttribute("moodStats", stats);
 
             // Get moods based on view mode
-            if ("month".equals(view)) {
-                Map<com.example.MentalMind.model.MoodEntry, String> monthlyMoods = new java.util.LinkedHashMap<>();
-                moodService.getMonthlyMoodsMap(userId).forEach((date, entry) -> monthlyMoods.put(entry, date));
-                model.addAttribute("moodEntriesMap", moodService.getMonthlyMoodsMap(userId));
-            } else {
-                model.addAttribute("moodEntriesMap", moodService.getWeeklyMoodsMap(userId));
-            }
+            // Loaded once per request as compact day buckets; notes are fetched when a day is opened
+            Map<String, MoodDayRow> moodDays = "month".equals(view)
+                    ? moodService.getMonthCalendar(userId, java.time.YearMonth.from(today))
+                    : moodService.getWeekCalendar(userId);
+            model.addAttribute("moodEntriesMap", moodDays);
 
             // Check if today's mood is already logged
             Optional<MoodEntry> todaysMood = moodService.getTodaysMood(userId);
@@ -277,6 +281,23 @@ public class StudentController {
         return "student/mood-tracker";
     }
 
+    @GetMapping("/mood-tracker/notes")
+    @ResponseBody
+    public ResponseEntity<?> getMoodNotes(@RequestParam String date, HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            String notes = moodService.getMoodNotes(userId, java.time.LocalDate.parse(date)).orElse("");
+            return ResponseEntity.ok(Map.of("date", date, "notes", notes));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/mood-tracker/log")
     public String logMood(@RequestParam Integer moodScore,
             @RequestParam(required = false) String notes,
@@ -336,17 +357,18 @@ public class StudentController {
         return "student/resources";
     }
 
+    // Card listing without content; answers 304 while the catalog version matches If-None-Match
     @GetMapping("/api/resources")
     @ResponseBody
-    public List<com.example.MentalMind.model.Resource> getResources(@RequestParam(required = false) String type,
+    public ResponseEntity<java.util.List<ResourceCard>> getResources(@RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
             @RequestParam(required = false) String search) {
-        if (search != null && !search.trim().isEmpty()) {
-            return resourceService.searchResources(search.trim());
-        } else if (type != null && !type.equals("all")) {
-            return resourceService.getResourcesByType(type);
-        } else {
-            return resourceService.getAllResources();
-        }
+        // Read the version first so a concurrent write can only make the ETag older than the body
+        String etag = "\"" + resourceService.getCatalogVersion() + "\"";
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(resourceService.listResources(type, category, search));
     }
 
     @GetMapping("/api/resources/{id}")
@@ -374,20 +396,41 @@ public class StudentController {
             return temp;
         }
         // Convert persistent bookmarks to a simple map representation for the client
-        java.util.List<com.example.MentalMind.model.UserResourceBookmark> bookmarks = resourceService
-                .getUserBookmarks(userId);
         java.util.List<java.util.Map<String, Object>> out = new java.util.ArrayList<>();
-        for (com.example.MentalMind.model.UserResourceBookmark b : bookmarks) {
+        for (BookmarkedResourceCard b : resourceService.getUserBookmarks(userId)) {
             java.util.Map<String, Object> m = new java.util.HashMap<>();
-            m.put("resourceId", b.getResource().getId());
-            m.put("title", b.getResource().getTitle());
-            m.put("type", b.getResource().getType());
+            m.put("resourceId", b.getId());
+            m.put("title", b.getTitle());
+            m.put("type", b.getType());
             m.put("bookmarkType", b.getBookmarkType());
             out.add(m);
         }
         return out;
     }
 
+    // Card listing annotated with the caller's bookmarks (session bookmarks when not logged in)
+    @GetMapping("/api/resources/with-bookmarks")
+    @ResponseBody
+    public java.util.List<BookmarkedResourceCard> getResourcesWithBookmarks(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String search,
+            HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId != null) {
+            return resourceService.listResourcesForUser(userId, type, category, search);
+        }
+        java.util.Map<Long, String> bookmarkTypes = new java.util.HashMap<>();
+        java.util.List<java.util.Map<String, Object>> temp = (java.util.List<java.util.Map<String, Object>>) session
+                .getAttribute("tempBookmarks");
+        if (temp != null) {
+            for (java.util.Map<String, Object> m : temp) {
+                bookmarkTypes.put(((Number) m.get("resourceId")).longValue(), (String) m.get("bookmarkType"));
+            }
+        }
+        return resourceService.annotate(resourceService.listResources(type, category, search), bookmarkTypes);
+    }
+
     @PostMapping("/api/bookmarks")
     @ResponseBody
     public Map<String, String> addBookmark(@RequestParam Long resourceId,
@@ -463,7 +506,8 @@ public class StudentController {
     @GetMapping("/forum")
     public String forum(Model model, HttpSession session,
                        @RequestParam(required = false) String category,
-                       @RequestParam(defaultValue = "time") String sort) {
+                       @RequestParam(defaultValue = "time") String sort,
+                       @RequestParam(required = false) String cursor) {
         Long userId = (Long) session.getAttribute("userId");
         if (userId == null) {
             return "redirect:/login";
@@ -476,50 +520,25 @@ public class StudentController {
             model.addAttribute("userPhotoUrl", settings.getProfilePhotoUrl());
         }
 
-        // Get posts by category, user's own posts, or all approved posts
-        List<ForumPost> posts;
+        // One feed page by category, user's own posts, or all approved posts, sorted in the database
+        ForumService.ForumFeedPage page;
         if ("myposts".equalsIgnoreCase(category) && user.isPresent()) {
             // Show only user's own approved posts (pending posts are shown separately above)
-            posts = forumPostRepository.findByUserAndStatus(user.get(), "APPROVED");
-        } else if (category != null && !category.equalsIgnoreCase("all")) {
-            posts = forumService.getPostsByCategory(category);
+            page = forumService.getFeedPage(null, sort, userId, cursor, ForumService.FEED_PAGE_SIZE);
         } else {
-            posts = forumService.getApprovedPosts();
+            page = forumService.getFeedPage(category, sort, null, cursor, ForumService.FEED_PAGE_SIZE);
         }
+        List<ForumFeedItem> posts = page.getPosts();
 
-        // Sort posts based on sort parameter
-        if ("likes".equalsIgnoreCase(sort)) {
-            posts.sort((p1, p2) -> Integer.compare(p2.getLikeCount(), p1.getLikeCount()));
-        } else {
-            // Default: sort by time (newest first)
-            posts.sort((p1, p2) -> p2.getCreatedAt().compareTo(p1.getCreatedAt()));
-        }
-
-        // Build a set of liked post IDs for current user
+        // Liked, flagged and owned posts of this page for the current user
         if (user.isPresent()) {
-            var likes = forumPostLikeRepository.findByUser(user.get());
-            java.util.Set<Long> likedPostIds = likes.stream()
-                .map(like -> like.getPost().getId())
-                .collect(java.util.stream.Collectors.toSet());
-            model.addAttribute("likedPostIds", likedPostIds);
-
-            // Build a map of user's flagged posts
-            java.util.Map<Long, Boolean> userFlaggedPosts = new java.util.HashMap<>();
-            for (ForumPost post : posts) {
-                userFlaggedPosts.put(post.getId(), forumService.hasUserFlaggedPost(post, user.get()));
-            }
-            model.addAttribute("userFlaggedPosts", userFlaggedPosts);
+            ForumService.ViewerState viewerState = forumService.resolveViewerState(posts, user.get());
+            model.addAttribute("likedPostIds", viewerState.getLikedPostIds());
+            model.addAttribute("userFlaggedPostIds", viewerState.getFlaggedPostIds());
 
             // Add current user ID and owned posts for post actions
             model.addAttribute("currentUserId", userId);
-            java.util.Set<Long> userOwnedPostIds = new java.util.HashSet<>();
-            for (ForumPost post : posts) {
-                if (post.getUser() != null && post.getUser().getId() != null && 
-                    post.getUser().getId().equals(user.get().getId())) {
-                    userOwnedPostIds.add(post.getId());
-                }
-            }
-            model.addAttribute("userOwnedPostIds", userOwnedPostIds);
+            model.addAttribute("userOwnedPostIds", viewerState.getOwnedPostIds());
 
             // Get user's own pending posts
             List<ForumPost> pendingPosts = forumPostRepository.findByUserAndStatus(user.get(), "PENDING");
@@ -528,6 +547,9 @@ public class StudentController {
         }
 
         model.addAttribute("posts", posts);
+        model.addAttribute("postComments", forumService.getCommentsForPosts(page.getPostIds(), ForumService.FEED_COMMENT_PAGE_SIZE));
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("isFirstPage", cursor == null || cursor.isBlank());
         model.addAttribute("selectedCategory", category != null ? category : "all");
         model.addAttribute("sortBy", sort);
 
@@ -535,7 +557,8 @@ public class StudentController {
     }
 
     @GetMapping("/forum/{postId}")
-    public String forumPostDetail(Model model, HttpSession session, @PathVariable Long postId) {
+    public String forumPostDetail(Model model, HttpSession session, @PathVariable Long postId,
+                                  @RequestParam(required = false) String cursor) {
         Long userId = (Long) session.getAttribute("userId");
         if (userId == null) {
             return "redirect:/login";
@@ -554,11 +577,14 @@ public class StudentController {
             return "redirect:/student/forum?error=post_not_found";
         }
 
-        // Sort comments by newest first
-        post.get().getComments().sort((c1, c2) -> c2.getCreatedAt().compareTo(c1.getCreatedAt()));
-
         model.addAttribute("post", post.get());
 
+        // One page of replies, newest first
+        ForumService.CommentPage commentPage = forumService.getCommentPage(postId, true, cursor, ForumService.COMMENT_PAGE_SIZE);
+        model.addAttribute("comments", commentPage.getComments());
+        model.addAttribute("nextCursor", commentPage.getNextCursor());
+        model.addAttribute("isFirstPage", cursor == null || cursor.isBlank());
+
         // Liked flag for current user on detail page
         if (user.isPresent()) {
             boolean liked = forumPostLikeRepository.existsByPostAndUser(post.get(), user.get());
@@ -578,6 +604,66 @@ public class StudentController {
         return "student/forum-detail";
     }
 
+    @GetMapping("/forum/{postId}/comments")
+    @ResponseBody
+    public Map<String, Object> forumComments(@PathVariable Long postId,
+                                             @RequestParam(required = false) String cursor,
+                                             HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) {
+            return Map.of("status", "error", "message", "Not authenticated");
+        }
+
+        Optional<ForumPost> post = forumPostRepository.findById(postId);
+        if (post.isEmpty() || !"APPROVED".equals(post.get().getStatus())) {
+            return Map.of("status", "error", "message", "Post not found");
+        }
+
+        // Next page of the feed's inline thread, oldest first, after the cursor
+        ForumService.CommentPage commentPage = forumService.getCommentPage(postId, false, cursor, ForumService.FEED_COMMENT_PAGE_SIZE);
+        List<Map<String, Object>> comments = new java.util.ArrayList<>();
+        for (ForumComment comment : commentPage.getComments()) {
+            comments.add(Map.of(
+                    "id", comment.getId(),
+                    "content", comment.getContent(),
+                    "authorName", comment.getAuthorDisplayName(),
+                    "timeAgo", comment.getTimeAgo()
+            ));
+        }
+        Map<String, Object> response = new java.util.HashMap<>();
+        response.put("status", "success");
+        response.put("comments", comments);
+        response.put("nextCursor", commentPage.getNextCursor());
+        return response;
+    }
+
+    @GetMapping("/forum/search")
+    @ResponseBody
+    public Map<String, Object> searchForum(@RequestParam String q,
+                                           @RequestParam(required = false) String category,
+                                           HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) {
+            return Map.of("status", "error", "message", "Not authenticated");
+        }
+
+        String categoryFilter = (category == null || category.isBlank() || "all".equals(category)
+                || "myposts".equals(category)) ? null : category;
+        List<Map<String, Object>> results = new java.util.ArrayList<>();
+        for (ForumPost post : forumService.searchPosts(q, categoryFilter, "APPROVED", ForumService.SEARCH_RESULT_LIMIT)) {
+            String content = post.getContent();
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("id", post.getId());
+            m.put("title", post.getTitle());
+            m.put("preview", content.length() > 200 ? content.substring(0, 200) + "..." : content);
+            m.put("category", post.getCategory());
+            m.put("likeCount", post.getLikeCount());
+            m.put("timeAgo", post.getTimeAgo());
+            results.add(m);
+        }
+        return Map.of("status", "success", "results", results);
+    }
+
     @PostMapping("/forum/post")
     public String createForumPost(@RequestParam String title,
             @RequestParam String content,
@@ -729,7 +815,7 @@ public class StudentController {
                 return Map.of("status", "error", "message", "You can only delete your own posts");
             }
             
-            forumPostRepository.delete(post.get());
+            forumService.deletePost(postId);
             return Map.of("status", "success", "message", "Post deleted successfully");
         } catch (Exception e) {
             return Map.of("status", "error", "message", "Failed to delete post: " + e.getMessage());
@@ -787,6 +873,31 @@ public class StudentController {
         }
     }
 
+    @GetMapping("/api/slots/search")
+    @ResponseBody
+    public ResponseEntity<java.util.List<java.util.Map<String, Object>>> searchAvailableSlots(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) Long counselorId,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            HttpSession session) {
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) {
+            return new ResponseEntity<>(java.util.Collections.emptyList(), HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            java.util.List<java.util.Map<String, Object>> slots = appointmentService.searchAvailableSlots(
+                    java.time.LocalDate.parse(from), java.time.LocalDate.parse(to), counselorId, specialization, limit);
+            return new ResponseEntity<>(slots, HttpStatus.OK);
+        } catch (java.time.format.DateTimeParseException e) {
+            return new ResponseEntity<>(java.util.Collections.emptyList(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(java.util.Collections.emptyList(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/api/check-conflict")
     @ResponseBody
     public ResponseEntity<java.util.Map<String, Object>> checkConflict(@RequestParam String date,
@@ -860,6 +971,11 @@ public class StudentController {
                     return "redirect:/student/appointments?error=conflict";
                 }
 
+                // The slot may have been taken since the booking form was loaded
+                if (appointmentService.hasCounselorConflict(counselor, appointmentDateTime, null)) {
+                    return "redirect:/student/appointments?error=unavailable";
+                }
+
                 // Create appointment
                 Appointment appointment = appointmentService.createAppointment(
                         student, counselor, appointmentDateTime, reason != null ? reason : "");
@@ -914,6 +1030,11 @@ public class StudentController {
                     return "redirect:/student/appointments?error=conflict";
                 }
 
+                if (appointmentService.hasCounselorConflict(appointment.getCounselor(), newAppointmentDateTime,
+                        appointment.getId())) {
+                    return "redirect:/student/appointments?error=unavailable";
+                }
+
                 // Update appointment
                 appointment.setAppointmentDateTime(newAppointmentDateTime);
                 appointment.setUpdatedAt(LocalDateTime.now());
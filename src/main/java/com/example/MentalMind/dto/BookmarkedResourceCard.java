@@ -0,0 +1,20 @@
+package com.example.MentalMind.dto;
+
+/**
+ * A resource card annotated with the current user's bookmark on it.
+ * bookmarkType is "reading_list" or "watch_later", or null when the
+ * resource is not bookmarked.
+ */
+public class BookmarkedResourceCard extends ResourceCard {
+
+    private final String bookmarkType;
+
+    public BookmarkedResourceCard(ResourceCard card, String bookmarkType) {
+        super(card);
+        this.bookmarkType = bookmarkType;
+    }
+
+    public String getBookmarkType() { return bookmarkType; }
+
+    public boolean isBookmarked() { return bookmarkType != null; }
+}
@@ -0,0 +1,22 @@
+package com.example.MentalMind.dto;
+
+/**
+ * One cell of the feedback type x status matrix, with counts for the fixed
+ * this-week, last-week and this-month creation windows. All-time totals come
+ * from DashboardAggregateService. Populated by FeedbackRepository.getStatsMatrix.
+ */
+public interface FeedbackStatsRow {
+
+    String getType();
+
+    String getStatus();
+
+    // Created in the last 7 days (from weekStart on)
+    Long getThisWeek();
+
+    // Created 7-14 days ago (from lastWeekStart, before weekStart)
+    Long getLastWeek();
+
+    // Created since the start of the current month
+    Long getThisMonth();
+}
@@ -0,0 +1,46 @@
+package com.example.MentalMind.dto;
+
+import com.example.MentalMind.model.ForumPost;
+
+import java.time.LocalDateTime;
+
+/**
+ * One post card of the forum feed: a truncated content preview, author and
+ * counters, without loading the post's full content, comments or flags.
+ * Populated by ForumPostRepository feed queries.
+ */
+public interface ForumFeedItem {
+
+    Long getId();
+
+    String getTitle();
+
+    // First 300 characters of the content
+    String getContent();
+
+    Integer getContentLength();
+
+    String getCategory();
+
+    Boolean getAnonymous();
+
+    Long getAuthorId();
+
+    String getAuthorName();
+
+    Integer getLikeCount();
+
+    Integer getFlagCount();
+
+    Integer getCommentCount();
+
+    LocalDateTime getCreatedAt();
+
+    default String getAuthorDisplayName() {
+        return Boolean.TRUE.equals(getAnonymous()) ? "Anonymous" : getAuthorName();
+    }
+
+    default String getTimeAgo() {
+        return ForumPost.formatTimeAgo(getCreatedAt());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.MentalMind.dto;
+
+import com.example.MentalMind.model.MoodEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One mood entry reduced to what the calendar views render: date, score and
+ * whether notes exist. Notes themselves are loaded on demand.
+ * Populated by MoodEntryRepository.findCalendarRows.
+ */
+public interface MoodDayRow {
+
+    Long getId();
+
+    LocalDateTime getCreatedAt();
+
+    Integer getMoodScore();
+
+    Boolean getHasNotes();
+
+    default LocalDate getDate() {
+        return getCreatedAt().toLocalDate();
+    }
+
+    default String getMoodEmoji() {
+        return MoodEntry.emojiFor(getMoodScore());
+    }
+
+    default String getMoodLabel() {
+        return MoodEntry.labelFor(getMoodScore());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.MentalMind.dto;
+
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One resource as shown in grids and lists: everything a card needs, without
+ * the TEXT content body, which only the resource detail call returns.
+ * Populated by ResourceRepository.findActiveCards.
+ */
+public class ResourceCard {
+
+    private static final Pattern YOUTUBE_ID = Pattern.compile(
+            "(?:youtube\\.com/watch\\?v=|youtu\\.be/)([a-zA-Z0-9_-]{11})");
+
+    private final Long id;
+    private final String title;
+    private final String type;
+    private final String category;
+    private final String description;
+    private final String icon;
+    private final String gradientFrom;
+    private final String gradientTo;
+    private final String badgeColor;
+    private final String coverImageUrl;
+    private final LocalDateTime createdAt;
+    // YouTube video id for video cards without a cover image, used for the thumbnail
+    private final String videoId;
+
+    public ResourceCard(Long id, String title, String type, String category, String description, String icon,
+            String gradientFrom, String gradientTo, String badgeColor, String coverImageUrl,
+            LocalDateTime createdAt, String videoContent) {
+        this.id = id;
+        this.title = title;
+        this.type = type;
+        this.category = category;
+        this.description = description;
+        this.icon = icon;
+        this.gradientFrom = gradientFrom;
+        this.gradientTo = gradientTo;
+        this.badgeColor = badgeColor;
+        this.coverImageUrl = coverImageUrl;
+        this.createdAt = createdAt;
+        this.videoId = extractYouTubeId(videoContent);
+    }
+
+    protected ResourceCard(ResourceCard card) {
+        this.id = card.id;
+        this.title = card.title;
+        this.type = card.type;
+        this.category = card.category;
+        this.description = card.description;
+        this.icon = card.icon;
+        this.gradientFrom = card.gradientFrom;
+        this.gradientTo = card.gradientTo;
+        this.badgeColor = card.badgeColor;
+        this.coverImageUrl = card.coverImageUrl;
+        this.createdAt = card.createdAt;
+        this.videoId = card.videoId;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getType() { return type; }
+    public String getCategory() { return category; }
+    public String getDescription() { return description; }
+    public String getIcon() { return icon; }
+    public String getGradientFrom() { return gradientFrom; }
+    public String getGradientTo() { return gradientTo; }
+    public String getBadgeColor() { return badgeColor; }
+    public String getCoverImageUrl() { return coverImageUrl; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getVideoId() { return videoId; }
+
+    private static String extractYouTubeId(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher m = YOUTUBE_ID.matcher(text);
+        return m.find() ? m.group(1) : null;
+    }
+}
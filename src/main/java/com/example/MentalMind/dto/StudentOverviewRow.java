@@ -0,0 +1,30 @@
+package com.example.MentalMind.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One student row of the counselor Students page, with the latest assessment
+ * and latest mood timestamp resolved in the same query.
+ * Populated by UserRepository.findStudentOverviewPage.
+ */
+public interface StudentOverviewRow {
+
+    Long getId();
+
+    String getFullName();
+
+    String getEmail();
+
+    // Latest self-assessment, all null when the student has none
+    Integer getLastScore();
+
+    String getStressLevel();
+
+    LocalDateTime getLastAssessmentAt();
+
+    // Latest mood entry time, null when the student never logged a mood
+    LocalDateTime getLastMoodAt();
+
+    // 0 = HIGH, 1 = MODERATE, 2 = LOW or no assessment; first component of the page cursor
+    Integer getRiskRank();
+}
@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appt_counselor_time_status", columnList = "counselor_id, appointment_date_time, status"),
+    @Index(name = "idx_appt_student_time", columnList = "student_id, appointment_date_time"),
+    @Index(name = "idx_appointment_date_time", columnList = "appointment_date_time")
+})
 public class Appointment {
 
     @Id
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "feedback")
+@Table(name = "feedback", indexes = {
+    @Index(name = "idx_created_at", columnList = "created_at")
+})
 public class Feedback {
 
     @Id
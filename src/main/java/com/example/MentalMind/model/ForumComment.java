@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "forum_comments")
+@Table(name = "forum_comments", indexes = {
+    @Index(name = "idx_comment_post_created", columnList = "post_id, created_at, id")
+})
 public class ForumComment {
 
     @Id
@@ -6,7 +6,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "forum_posts")
+@Table(name = "forum_posts", indexes = {
+    @Index(name = "idx_forum_status_created", columnList = "status, created_at, id"),
+    @Index(name = "idx_forum_status_likes", columnList = "status, like_count, id"),
+    @Index(name = "idx_forum_status_category_created", columnList = "status, category, created_at, id"),
+    @Index(name = "idx_forum_status_flags", columnList = "status, flag_count, created_at")
+})
 public class ForumPost {
 
     @Id
@@ -35,7 +40,8 @@ public class ForumPost {
     @Column
     private String moderationNote;
 
-    @Column(nullable = false)
+    // Only changed by relative UPDATEs from ForumLikeCounterService, never by entity saves
+    @Column(nullable = false, updatable = false)
     private int likeCount = 0;
 
     @Column(nullable = false)
@@ -44,9 +50,9 @@ public class ForumPost {
     @Column
     private LocalDateTime updatedAt;
 
-    @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
-    @OrderBy("createdAt ASC")
-    private List<ForumComment> comments = new ArrayList<>();
+    // Only changed by relative UPDATEs from ForumService, never by entity saves
+    @Column(nullable = false, updatable = false)
+    private int commentCount = 0;
 
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("createdAt DESC")
@@ -55,6 +61,10 @@ public class ForumPost {
     @Column(nullable = false)
     private int flagCount = 0;
 
+    // Time of the most recent flag, for moderation queue priority
+    @Column
+    private LocalDateTime lastFlaggedAt;
+
     public ForumPost() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -159,16 +169,8 @@ public class ForumPost {
         this.updatedAt = updatedAt;
     }
 
-    public List<ForumComment> getComments() {
-        return comments;
-    }
-
-    public void setComments(List<ForumComment> comments) {
-        this.comments = comments;
-    }
-
     public int getCommentCount() {
-        return comments != null ? comments.size() : 0;
+        return commentCount;
     }
 
     public String getAuthorDisplayName() {
@@ -176,6 +178,11 @@ public class ForumPost {
     }
 
     public String getTimeAgo() {
+        return formatTimeAgo(createdAt);
+    }
+
+    // Relative label ("5 min ago", "2 days ago") for a post or feed item timestamp
+    public static String formatTimeAgo(LocalDateTime createdAt) {
         LocalDateTime now = LocalDateTime.now();
         long minutes = java.time.Duration.between(createdAt, now).toMinutes();
         
@@ -208,4 +215,13 @@ public class ForumPost {
 
     public void setFlagCount(int flagCount) {
         this.flagCount = flagCount;
-    }}
+    }
+
+    public LocalDateTime getLastFlaggedAt() {
+        return lastFlaggedAt;
+    }
+
+    public void setLastFlaggedAt(LocalDateTime lastFlaggedAt) {
+        this.lastFlaggedAt = lastFlaggedAt;
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "mood_entries")
+@Table(name = "mood_entries", indexes = {
+    @Index(name = "idx_mood_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_created_at", columnList = "created_at")
+})
 public class MoodEntry {
 
     @Id
@@ -78,7 +81,18 @@ public class MoodEntry {
 
     // Helper method to get mood emoji
     public String getMoodEmoji() {
-        return switch (moodScore) {
+        return emojiFor(moodScore);
+    }
+
+    // Helper method to get mood label
+    public String getMoodLabel() {
+        return labelFor(moodScore);
+    }
+
+    // Emoji for a mood score
+    public static String emojiFor(Integer score) {
+        if (score == null) return "❓";
+        return switch (score) {
             case 1 -> "😔";
             case 2 -> "😟";
             case 3 -> "😐";
@@ -88,9 +102,10 @@ public class MoodEntry {
         };
     }
 
-    // Helper method to get mood label
-    public String getMoodLabel() {
-        return switch (moodScore) {
+    // Label for a mood score
+    public static String labelFor(Integer score) {
+        if (score == null) return "Unknown";
+        return switch (score) {
             case 1 -> "Terrible";
             case 2 -> "Bad";
             case 3 -> "Okay";
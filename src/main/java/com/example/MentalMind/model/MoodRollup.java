@@ -0,0 +1,135 @@
+package com.example.MentalMind.model;
+
+import jakarta.persistence.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Pre-aggregated mood scores for one time bucket, either for a single student
+ * or campus-wide (studentId = CAMPUS). Maintained by MoodRollupService from
+ * MoodService.logMood so trend views read a handful of rows per series
+ * instead of every mood entry.
+ */
+@Entity
+@Table(name = "mood_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_mood_rollup_bucket", columnNames = {"granularity", "student_id", "bucket_start"})
+})
+public class MoodRollup {
+
+    public static final String DAY = "DAY";
+    public static final String WEEK = "WEEK";
+
+    // studentId of the campus-wide series
+    public static final long CAMPUS = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 8)
+    private String granularity; // DAY, WEEK
+
+    // Plain id rather than a relation so the campus series can use 0
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // Day of the bucket, or the Monday of a week bucket
+    @Column(nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(nullable = false)
+    private int entryCount;
+
+    @Column(nullable = false)
+    private long scoreSum;
+
+    @Column(nullable = true)
+    private Integer scoreMin;
+
+    @Column(nullable = true)
+    private Integer scoreMax;
+
+    public MoodRollup() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public Integer getScoreMin() {
+        return scoreMin;
+    }
+
+    public void setScoreMin(Integer scoreMin) {
+        this.scoreMin = scoreMin;
+    }
+
+    public Integer getScoreMax() {
+        return scoreMax;
+    }
+
+    public void setScoreMax(Integer scoreMax) {
+        this.scoreMax = scoreMax;
+    }
+
+    // Helper method to get the average score of the bucket, rounded to one decimal
+    public Double getAverage() {
+        return entryCount > 0 ? Math.round(scoreSum * 10.0 / entryCount) / 10.0 : null;
+    }
+
+    // Helper method to get the start of the bucket containing a date
+    public static LocalDate bucketStart(String granularity, LocalDate date) {
+        return WEEK.equals(granularity) ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+    }
+
+    // Helper method to get the length of a bucket in days
+    public static int bucketDays(String granularity) {
+        return WEEK.equals(granularity) ? 7 : 1;
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "self_assessment_results")
+@Table(name = "self_assessment_results", indexes = {
+    @Index(name = "idx_assessment_user_completed", columnList = "user_id, completed_at"),
+    @Index(name = "idx_assessment_completed", columnList = "completed_at")
+})
 public class SelfAssessmentResult {
 
     @Id
@@ -0,0 +1,46 @@
+package com.example.MentalMind.model;
+
+/**
+ * PSS-10 stress bands over the 0-40 self-assessment score.
+ * Shared by stress level classification and assessment analytics.
+ */
+public enum StressLevel {
+    LOW("Low Stress", 0, 13),
+    MODERATE("Moderate Stress", 14, 26),
+    HIGH("High Stress", 27, 40);
+
+    public static final int MIN_SCORE = 0;
+    public static final int MAX_SCORE = 40;
+
+    private final String displayName;
+    private final int minScore;
+    private final int maxScore;
+
+    StressLevel(String displayName, int minScore, int maxScore) {
+        this.displayName = displayName;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getMinScore() {
+        return minScore;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    // Band containing a score; scores outside 0-40 fall into the nearest band
+    public static StressLevel fromScore(int score) {
+        for (StressLevel level : values()) {
+            if (score <= level.maxScore) {
+                return level;
+            }
+        }
+        return HIGH;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.MentalMind.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized per-student activity and risk state, one row per student.
+ * Kept current by StudentActivityService on every mood log and self-assessment,
+ * so counselor views can read "last active" and "current risk" without scanning history.
+ */
+@Entity
+@Table(name = "student_activity_snapshots", indexes = {
+    @Index(name = "idx_snapshot_last_mood", columnList = "last_mood_at"),
+    @Index(name = "idx_snapshot_last_active", columnList = "last_active_at"),
+    @Index(name = "idx_snapshot_risk", columnList = "risk_rank, student_id")
+})
+public class StudentActivitySnapshot {
+
+    // Risk ranks, ordered most urgent first
+    public static final int RISK_HIGH = 0;
+    public static final int RISK_MODERATE = 1;
+    public static final int RISK_LOW = 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false, unique = true)
+    private User student;
+
+    // Latest mood entry
+    @Column(nullable = true)
+    private LocalDateTime lastMoodAt;
+
+    @Column(nullable = true)
+    private Integer lastMoodScore;
+
+    // Score of the latest entry from an earlier day, for trend detection
+    @Column(nullable = true)
+    private Integer previousMoodScore;
+
+    // Average mood over the 7 days ending at lastMoodAt
+    @Column(nullable = true)
+    private Double moodAverage7d;
+
+    // Consecutive logging days ending at lastMoodAt's date
+    @Column(nullable = false)
+    private int moodStreak = 0;
+
+    // Latest self-assessment
+    @Column(nullable = true)
+    private LocalDateTime lastAssessmentAt;
+
+    @Column(nullable = true)
+    private Integer lastAssessmentScore;
+
+    @Column(nullable = true)
+    private String lastStressLevel; // LOW, MODERATE, HIGH
+
+    @Column(nullable = false)
+    private int riskRank = RISK_LOW;
+
+    // Latest mood time, or latest assessment time when no mood was ever logged
+    @Column(nullable = true)
+    private LocalDateTime lastActiveAt;
+
+    @Column(nullable = true)
+    private LocalDateTime updatedAt;
+
+    public StudentActivitySnapshot() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public StudentActivitySnapshot(User student) {
+        this();
+        this.student = student;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getStudent() {
+        return student;
+    }
+
+    public void setStudent(User student) {
+        this.student = student;
+    }
+
+    public LocalDateTime getLastMoodAt() {
+        return lastMoodAt;
+    }
+
+    public void setLastMoodAt(LocalDateTime lastMoodAt) {
+        this.lastMoodAt = lastMoodAt;
+    }
+
+    public Integer getLastMoodScore() {
+        return lastMoodScore;
+    }
+
+    public void setLastMoodScore(Integer lastMoodScore) {
+        this.lastMoodScore = lastMoodScore;
+    }
+
+    public Integer getPreviousMoodScore() {
+        return previousMoodScore;
+    }
+
+    public void setPreviousMoodScore(Integer previousMoodScore) {
+        this.previousMoodScore = previousMoodScore;
+    }
+
+    public Double getMoodAverage7d() {
+        return moodAverage7d;
+    }
+
+    public void setMoodAverage7d(Double moodAverage7d) {
+        this.moodAverage7d = moodAverage7d;
+    }
+
+    public int getMoodStreak() {
+        return moodStreak;
+    }
+
+    public void setMoodStreak(int moodStreak) {
+        this.moodStreak = moodStreak;
+    }
+
+    public LocalDateTime getLastAssessmentAt() {
+        return lastAssessmentAt;
+    }
+
+    public void setLastAssessmentAt(LocalDateTime lastAssessmentAt) {
+        this.lastAssessmentAt = lastAssessmentAt;
+    }
+
+    public Integer getLastAssessmentScore() {
+        return lastAssessmentScore;
+    }
+
+    public void setLastAssessmentScore(Integer lastAssessmentScore) {
+        this.lastAssessmentScore = lastAssessmentScore;
+    }
+
+    public String getLastStressLevel() {
+        return lastStressLevel;
+    }
+
+    public void setLastStressLevel(String lastStressLevel) {
+        this.lastStressLevel = lastStressLevel;
+    }
+
+    public int getRiskRank() {
+        return riskRank;
+    }
+
+    public void setRiskRank(int riskRank) {
+        this.riskRank = riskRank;
+    }
+
+    public LocalDateTime getLastActiveAt() {
+        return lastActiveAt;
+    }
+
+    public void setLastActiveAt(LocalDateTime lastActiveAt) {
+        this.lastActiveAt = lastActiveAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Helper method to get the streak as of today (0 once a day has been missed)
+    public int getCurrentStreak() {
+        if (lastMoodAt == null) {
+            return 0;
+        }
+        LocalDate lastDate = lastMoodAt.toLocalDate();
+        return lastDate.isBefore(LocalDate.now().minusDays(1)) ? 0 : moodStreak;
+    }
+
+    // Helper method to map a stress level to its risk rank
+    public static int toRiskRank(String stressLevel) {
+        if ("HIGH".equalsIgnoreCase(stressLevel)) return RISK_HIGH;
+        if ("MODERATE".equalsIgnoreCase(stressLevel)) return RISK_MODERATE;
+        return RISK_LOW;
+    }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_resource_bookmarks")
+@Table(name = "user_resource_bookmarks", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_bookmark_user_resource", columnNames = {"user_id", "resource_id"})
+})
 public class UserResourceBookmark {
 
     @Id
@@ -2,13 +2,19 @@ package com.example.MentalMind.repository;
 
 import com.example.MentalMind.model.Appointment;
 import com.example.MentalMind.model.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHint;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -49,4 +55,73 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Same check but excluding a specific appointment (for reschedule flows)
     @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.student = :student AND a.appointmentDateTime = :dateTime AND a.status IN ('PENDING','APPROVED') AND a.id <> :appointmentId")
     boolean existsActiveAtDateTimeExcluding(@Param("student") User student, @Param("dateTime") LocalDateTime dateTime, @Param("appointmentId") Long appointmentId);
+
+    // Appointment counts in a time window grouped by counselor and status: rows of [counselorId, status, count]
+    @Query("SELECT a.counselor.id, a.status, COUNT(a) FROM Appointment a WHERE a.appointmentDateTime BETWEEN :start AND :end GROUP BY a.counselor.id, a.status")
+    List<Object[]> countByCounselorAndStatusBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Appointments for a counselor in [start, end), with the student fetched
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.student WHERE a.counselor = :counselor "
+            + "AND a.appointmentDateTime >= :start AND a.appointmentDateTime < :end ORDER BY a.appointmentDateTime ASC")
+    List<Appointment> findCounselorAppointmentsBetween(@Param("counselor") User counselor,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Appointments for a counselor in [start, end) with one of the given statuses, with the student fetched
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.student WHERE a.counselor = :counselor "
+            + "AND a.appointmentDateTime >= :start AND a.appointmentDateTime < :end AND a.status IN :statuses "
+            + "ORDER BY a.appointmentDateTime ASC")
+    List<Appointment> findCounselorAppointmentsBetweenWithStatus(@Param("counselor") User counselor,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("statuses") Collection<String> statuses);
+
+    // Appointments for a counselor after the given time, with the student fetched
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.student WHERE a.counselor = :counselor "
+            + "AND a.appointmentDateTime > :after ORDER BY a.appointmentDateTime ASC")
+    List<Appointment> findCounselorAppointmentsAfter(@Param("counselor") User counselor, @Param("after") LocalDateTime after);
+
+    // Appointments for a student after the given time, with the counselor fetched
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.counselor WHERE a.student = :student "
+            + "AND a.appointmentDateTime > :after ORDER BY a.appointmentDateTime ASC")
+    List<Appointment> findStudentAppointmentsAfter(@Param("student") User student, @Param("after") LocalDateTime after);
+
+    // Start times occupying counselors' calendars in [start, end); rejected appointments free their slot.
+    // Rows of [counselorId, appointmentDateTime]
+    @Query("SELECT a.counselor.id, a.appointmentDateTime FROM Appointment a WHERE a.counselor IN :counselors "
+            + "AND a.appointmentDateTime >= :start AND a.appointmentDateTime < :end AND a.status <> 'REJECTED'")
+    List<Object[]> findOccupiedTimesByCounselor(@Param("counselors") Collection<User> counselors,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Whether a non-rejected appointment of the counselor other than excludeId starts strictly between from and to
+    // (excludeId = 0 excludes nothing)
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.counselor = :counselor "
+            + "AND a.appointmentDateTime > :from AND a.appointmentDateTime < :to AND a.status <> 'REJECTED' "
+            + "AND a.id <> :excludeId")
+    boolean existsOccupyingBetween(@Param("counselor") User counselor,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("excludeId") long excludeId);
+
+    // Reject every pending appointment whose time has passed; returns the number of rows changed
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = 'REJECTED', a.rejectionReason = :reason, a.updatedAt = :now "
+            + "WHERE a.status = 'PENDING' AND a.appointmentDateTime < :now")
+    int rejectOverduePending(@Param("now") LocalDateTime now, @Param("reason") String reason);
+
+    // Complete every approved appointment whose time has passed; returns the number of rows changed
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = 'COMPLETED', a.updatedAt = :now "
+            + "WHERE a.status = 'APPROVED' AND a.appointmentDateTime < :now")
+    int completeOverdueApproved(@Param("now") LocalDateTime now);
+
+    // Export rows [id, studentId, studentName, counselorId, counselorName, appointmentDateTime, status, createdAt]
+    // for appointments in [start, end), earliest first; counselorId = 0 means all counselors
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = MoodEntryRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, s.id, s.fullName, c.id, c.fullName, a.appointmentDateTime, a.status, a.createdAt "
+            + "FROM Appointment a JOIN a.student s JOIN a.counselor c "
+            + "WHERE a.appointmentDateTime >= :start AND a.appointmentDateTime < :end "
+            + "AND (:counselorId = 0 OR c.id = :counselorId) "
+            + "ORDER BY a.appointmentDateTime, a.id")
+    Stream<Object[]> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("counselorId") long counselorId);
 }
@@ -5,6 +5,8 @@ import com.example.MentalMind.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +15,6 @@ public interface CounselorSettingsRepository extends JpaRepository<CounselorSett
     Optional<CounselorSettings> findByCounselor(User counselor);
 
     Optional<CounselorSettings> findByCounselorId(Long counselorId);
+
+    List<CounselorSettings> findByCounselorIn(Collection<User> counselors);
 }
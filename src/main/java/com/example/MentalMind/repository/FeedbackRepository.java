@@ -1,14 +1,51 @@
 package com.example.MentalMind.repository;
 
+import com.example.MentalMind.dto.FeedbackStatsRow;
 import com.example.MentalMind.model.Feedback;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHint;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     List<Feedback> findByUserId(Long userId);
     List<Feedback> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Feedback> findByTypeAndStatus(String type, String status);
+
+    // Feedback counts grouped by type and status: rows of [type, status, count]
+    @Query("SELECT f.type, f.status, COUNT(f) FROM Feedback f GROUP BY f.type, f.status")
+    List<Object[]> countGroupedByTypeAndStatus();
+
+    // Type x status matrix of this-week, last-week and this-month counts in a single pass.
+    // Only rows created since :since (the earliest window start) are read, via idx_created_at.
+    @Query("SELECT f.type AS type, f.status AS status, "
+            + "SUM(CASE WHEN f.createdAt >= :weekStart THEN 1 ELSE 0 END) AS thisWeek, "
+            + "SUM(CASE WHEN f.createdAt >= :lastWeekStart AND f.createdAt < :weekStart THEN 1 ELSE 0 END) AS lastWeek, "
+            + "SUM(CASE WHEN f.createdAt >= :monthStart THEN 1 ELSE 0 END) AS thisMonth "
+            + "FROM Feedback f WHERE f.createdAt >= :since GROUP BY f.type, f.status")
+    List<FeedbackStatsRow> getStatsMatrix(@Param("since") LocalDateTime since,
+            @Param("weekStart") LocalDateTime weekStart,
+            @Param("lastWeekStart") LocalDateTime lastWeekStart,
+            @Param("monthStart") LocalDateTime monthStart);
+
+    // Number of distinct users who have submitted feedback
+    @Query("SELECT COUNT(DISTINCT f.user.id) FROM Feedback f")
+    long countDistinctUsers();
+
+    // Export rows [id, userId, userName, type, subject, status, createdAt] in [start, end), oldest first
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = MoodEntryRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f.id, u.id, u.fullName, f.type, f.subject, f.status, f.createdAt FROM Feedback f JOIN f.user u "
+            + "WHERE f.createdAt >= :start AND f.createdAt < :end ORDER BY f.createdAt, f.id")
+    Stream<Object[]> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
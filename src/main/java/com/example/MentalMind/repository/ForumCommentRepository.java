@@ -1,21 +1,51 @@
 package com.example.MentalMind.repository;
 
 import com.example.MentalMind.model.ForumComment;
-import com.example.MentalMind.model.ForumPost;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ForumCommentRepository extends JpaRepository<ForumComment, Long> {
 
-    // Find all comments for a specific post ordered by creation date
-    List<ForumComment> findByPostOrderByCreatedAtAsc(ForumPost post);
+    // One page of a post's comments with authors, oldest first, after the (createdAt, id) cursor
+    @Query("SELECT c FROM ForumComment c JOIN FETCH c.user WHERE c.post.id = :postId "
+            + "AND (c.createdAt > :afterTime OR (c.createdAt = :afterTime AND c.id > :afterId)) "
+            + "ORDER BY c.createdAt ASC, c.id ASC")
+    List<ForumComment> findPageOldestFirst(@Param("postId") Long postId, @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") long afterId, Pageable pageable);
 
-    // Count comments by post
-    long countByPost(ForumPost post);
-    
-    // Delete all comments for a specific post
-    void deleteByPost(ForumPost post);
+    // One page of a post's comments with authors, newest first, before the (createdAt, id) cursor
+    @Query("SELECT c FROM ForumComment c JOIN FETCH c.user WHERE c.post.id = :postId "
+            + "AND (c.createdAt < :beforeTime OR (c.createdAt = :beforeTime AND c.id < :beforeId)) "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ForumComment> findPageNewestFirst(@Param("postId") Long postId, @Param("beforeTime") LocalDateTime beforeTime,
+            @Param("beforeId") long beforeId, Pageable pageable);
+
+    // Ids of the first :perPost comments of each post, oldest first, in one windowed query
+    @Query(value = "SELECT ranked.id FROM (SELECT c.id, ROW_NUMBER() OVER "
+            + "(PARTITION BY c.post_id ORDER BY c.created_at ASC, c.id ASC) AS rn "
+            + "FROM forum_comments c WHERE c.post_id IN (:postIds)) ranked WHERE ranked.rn <= :perPost",
+            nativeQuery = true)
+    List<Long> findFirstIdsPerPost(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
+
+    // Comments by id with their authors, oldest first
+    @Query("SELECT c FROM ForumComment c JOIN FETCH c.user WHERE c.id IN :ids ORDER BY c.createdAt ASC, c.id ASC")
+    List<ForumComment> findByIdsWithUser(@Param("ids") Collection<Long> ids);
+
+    // (postId, content) of every comment, for building the search index
+    @Query("SELECT c.post.id, c.content FROM ForumComment c")
+    List<Object[]> findAllPostIdAndContent();
+
+    // Bulk-delete the comments of several posts; returns rows deleted
+    @Modifying
+    @Query("DELETE FROM ForumComment c WHERE c.post.id IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
 }
@@ -4,8 +4,12 @@ import com.example.MentalMind.model.ForumPostFlag;
 import com.example.MentalMind.model.ForumPost;
 import com.example.MentalMind.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +24,12 @@ public interface ForumPostFlagRepository extends JpaRepository<ForumPostFlag, Lo
     // Check if a user already flagged a post
     boolean existsByPostAndUser(ForumPost post, User user);
     
-    // Delete all flags for a post
-    void deleteByPost(ForumPost post);
+    // Which of the given posts the user has flagged
+    @Query("SELECT f.post.id FROM ForumPostFlag f WHERE f.user = :user AND f.post.id IN :postIds")
+    List<Long> findFlaggedPostIds(@Param("user") User user, @Param("postIds") Collection<Long> postIds);
+
+    // Bulk-delete the flags of several posts; returns rows deleted
+    @Modifying
+    @Query("DELETE FROM ForumPostFlag f WHERE f.post.id IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
 }
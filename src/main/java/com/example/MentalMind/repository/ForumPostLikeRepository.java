@@ -4,7 +4,11 @@ import com.example.MentalMind.model.ForumPost;
 import com.example.MentalMind.model.ForumPostLike;
 import com.example.MentalMind.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -13,6 +17,26 @@ public interface ForumPostLikeRepository extends JpaRepository<ForumPostLike, Lo
     Optional<ForumPostLike> findByPostAndUser(ForumPost post, User user);
     long countByPost(ForumPost post);
     void deleteByPostAndUser(ForumPost post, User user);
-    void deleteByPost(ForumPost post);
+
+    // Bulk-delete the likes of several posts; returns rows deleted
+    @Modifying
+    @Query("DELETE FROM ForumPostLike l WHERE l.post.id IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
+
     List<ForumPostLike> findByUser(User user);
+
+    // Insert a like unless the (post, user) pair already exists; returns rows inserted
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO forum_post_likes (post_id, user_id, created_at) VALUES (:postId, :userId, NOW())",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    // Remove a like; returns rows deleted
+    @Modifying
+    @Query("DELETE FROM ForumPostLike l WHERE l.post.id = :postId AND l.user.id = :userId")
+    int deleteLike(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    // Which of the given posts the user has liked
+    @Query("SELECT l.post.id FROM ForumPostLike l WHERE l.user = :user AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("user") User user, @Param("postIds") Collection<Long> postIds);
 }
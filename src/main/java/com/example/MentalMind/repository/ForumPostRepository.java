@@ -1,12 +1,18 @@
 package com.example.MentalMind.repository;
 
+import com.example.MentalMind.dto.ForumFeedItem;
 import com.example.MentalMind.model.ForumPost;
 import com.example.MentalMind.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,4 +36,80 @@ public interface ForumPostRepository extends JpaRepository<ForumPost, Long> {
 
     // Count pending posts
     long countByStatus(String status);
+
+    // One page of flagged approved post ids (idx_forum_status_flags), highest priority first:
+    // flag count, a recency bonus halving every :halfLifeHours since the last flag, and a category bonus
+    @Query(value = "SELECT p.id FROM forum_posts p WHERE p.status = 'APPROVED' AND p.flag_count > 0 "
+            + "ORDER BY (:flagWeight * p.flag_count "
+            + "+ :recencyWeight * POW(0.5, GREATEST(0, TIMESTAMPDIFF(MINUTE, "
+            + "COALESCE(p.last_flagged_at, p.created_at), :now)) / 60.0 / :halfLifeHours) "
+            + "+ CASE LOWER(p.category) WHEN 'depression' THEN :depressionWeight WHEN 'anxiety' THEN :anxietyWeight "
+            + "WHEN 'stress' THEN :stressWeight ELSE 0 END) DESC, p.created_at DESC, p.id ASC",
+            nativeQuery = true)
+    List<Long> findFlaggedQueueIds(@Param("now") LocalDateTime now, @Param("flagWeight") double flagWeight,
+            @Param("recencyWeight") double recencyWeight, @Param("halfLifeHours") double halfLifeHours,
+            @Param("depressionWeight") double depressionWeight, @Param("anxietyWeight") double anxietyWeight,
+            @Param("stressWeight") double stressWeight, Pageable pageable);
+
+    // Count flagged approved posts
+    @Query("SELECT COUNT(p) FROM ForumPost p WHERE p.status = 'APPROVED' AND p.flagCount > 0")
+    long countFlagged();
+
+    // Posts with their authors by id, in no particular order
+    @Query("SELECT p FROM ForumPost p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<ForumPost> findByIdsWithUser(@Param("ids") Collection<Long> ids);
+
+    // One page of posts in a status with their authors, newest first
+    @Query("SELECT p FROM ForumPost p JOIN FETCH p.user WHERE p.status = :status ORDER BY p.createdAt DESC, p.id DESC")
+    List<ForumPost> findByStatusWithUser(@Param("status") String status, Pageable pageable);
+
+    // Apply a coalesced like delta without rewriting the rest of the row
+    @Transactional
+    @Modifying
+    @Query("UPDATE ForumPost p SET p.likeCount = p.likeCount + :delta WHERE p.id = :postId")
+    int addToLikeCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    // Bulk-delete posts whose likes, comments and flags are already gone; returns rows deleted
+    @Modifying
+    @Query("DELETE FROM ForumPost p WHERE p.id IN :postIds")
+    int deleteByIds(@Param("postIds") Collection<Long> postIds);
+
+    // Adjust the denormalized comment count
+    @Modifying
+    @Query("UPDATE ForumPost p SET p.commentCount = p.commentCount + :delta WHERE p.id = :postId")
+    int addToCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+
+    // Recompute every post's comment count from the comments table
+    @Modifying
+    @Query("UPDATE ForumPost p SET p.commentCount = (SELECT COUNT(c) FROM ForumComment c WHERE c.post = p)")
+    int recountComments();
+
+    // Whether any post with comments still shows a zero comment count (e.g. seeded outside ForumService)
+    @Query("SELECT COUNT(p) > 0 FROM ForumPost p WHERE p.commentCount = 0 "
+            + "AND EXISTS (SELECT c.id FROM ForumComment c WHERE c.post = p)")
+    boolean existsUncountedComments();
+
+    // Feed card columns and filters shared by the feed queries.
+    // :category = '' means all categories, :authorId = 0 means all authors.
+    String FEED_SELECT = "SELECT p.id AS id, p.title AS title, SUBSTRING(p.content, 1, 300) AS content, "
+            + "LENGTH(p.content) AS contentLength, p.category AS category, p.anonymous AS anonymous, "
+            + "u.id AS authorId, u.fullName AS authorName, p.likeCount AS likeCount, p.flagCount AS flagCount, "
+            + "p.commentCount AS commentCount, p.createdAt AS createdAt "
+            + "FROM ForumPost p JOIN p.user u "
+            + "WHERE p.status = 'APPROVED' AND (:category = '' OR p.category = :category) "
+            + "AND (:authorId = 0 OR u.id = :authorId) ";
+
+    // One feed page, newest first, after the (createdAt, id) cursor
+    @Query(FEED_SELECT
+            + "AND (p.createdAt < :afterTime OR (p.createdAt = :afterTime AND p.id < :afterId)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ForumFeedItem> findFeedByTime(@Param("category") String category, @Param("authorId") long authorId,
+            @Param("afterTime") LocalDateTime afterTime, @Param("afterId") long afterId, Pageable pageable);
+
+    // One feed page, most liked first, after the (likeCount, id) cursor
+    @Query(FEED_SELECT
+            + "AND (p.likeCount < :afterLikes OR (p.likeCount = :afterLikes AND p.id < :afterId)) "
+            + "ORDER BY p.likeCount DESC, p.id DESC")
+    List<ForumFeedItem> findFeedByLikes(@Param("category") String category, @Param("authorId") long authorId,
+            @Param("afterLikes") int afterLikes, @Param("afterId") long afterId, Pageable pageable);
 }
@@ -2,6 +2,8 @@ package com.example.MentalMind.repository;
 
 import com.example.MentalMind.model.LearningModule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -9,4 +11,11 @@ import java.util.List;
 public interface LearningModuleRepository extends JpaRepository<LearningModule, Long> {
     List<LearningModule> findByIsActiveTrue();
     List<LearningModule> findByCreatedBy(Long createdBy);
+
+    // (moduleId, active material count, active materials the student completed) for every active module
+    @Query("SELECT mo.id, COUNT(DISTINCT m.id), COUNT(DISTINCT p.material.id) FROM LearningModule mo "
+            + "LEFT JOIN mo.materials m ON m.isActive = true "
+            + "LEFT JOIN StudentMaterialProgress p ON p.material = m AND p.studentId = :studentId AND p.isCompleted = true "
+            + "WHERE mo.isActive = true GROUP BY mo.id")
+    List<Object[]> countMaterialProgressByModule(@Param("studentId") Long studentId);
 }
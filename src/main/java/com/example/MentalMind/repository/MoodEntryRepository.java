@@ -1,15 +1,22 @@
 package com.example.MentalMind.repository;
 
+import com.example.MentalMind.dto.MoodDayRow;
 import com.example.MentalMind.model.MoodEntry;
 import com.example.MentalMind.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHint;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MoodEntryRepository extends JpaRepository<MoodEntry, Long> {
@@ -43,4 +50,47 @@ public interface MoodEntryRepository extends JpaRepository<MoodEntry, Long> {
     // Get the most common mood score for a user
     @Query("SELECT m.moodScore FROM MoodEntry m WHERE m.user = :user GROUP BY m.moodScore ORDER BY COUNT(m.moodScore) DESC LIMIT 1")
     Optional<Integer> findMostCommonMoodScore(@Param("user") User user);
+
+    // Average mood for a user since a given time
+    @Query("SELECT AVG(m.moodScore) FROM MoodEntry m WHERE m.user = :user AND m.createdAt >= :since")
+    Double getAverageMoodScoreSince(@Param("user") User user, @Param("since") LocalDateTime since);
+
+    // Distinct days with a mood entry for a user, newest first
+    @Query("SELECT CAST(m.createdAt AS LocalDate) FROM MoodEntry m WHERE m.user = :user "
+            + "GROUP BY CAST(m.createdAt AS LocalDate) ORDER BY CAST(m.createdAt AS LocalDate) DESC")
+    List<LocalDate> findDistinctEntryDates(@Param("user") User user, Pageable pageable);
+
+    // Calendar rows (no notes) for a user within [start, end), oldest first
+    @Query("SELECT m.id AS id, m.createdAt AS createdAt, m.moodScore AS moodScore, "
+            + "CASE WHEN m.notes IS NOT NULL AND LENGTH(m.notes) > 0 THEN true ELSE false END AS hasNotes "
+            + "FROM MoodEntry m WHERE m.user.id = :userId AND m.createdAt >= :start AND m.createdAt < :end "
+            + "ORDER BY m.createdAt ASC")
+    List<MoodDayRow> findCalendarRows(@Param("userId") Long userId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Notes of a user's entries within [start, end), newest first
+    @Query("SELECT m.notes FROM MoodEntry m WHERE m.user.id = :userId "
+            + "AND m.createdAt >= :start AND m.createdAt < :end ORDER BY m.createdAt DESC")
+    List<String> findNotesBetween(@Param("userId") Long userId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+
+    // Time of the oldest mood entry, null when there are none
+    @Query("SELECT MIN(m.createdAt) FROM MoodEntry m")
+    LocalDateTime findEarliestCreatedAt();
+
+    // MySQL Connector/J streams rows one at a time only with this fetch size
+    String EXPORT_FETCH_SIZE = "-2147483648";
+
+    // Export rows [id, studentId, studentName, moodScore, createdAt] in [start, end), oldest first.
+    // counselorId = 0 means all students, otherwise students who have appointments with that counselor.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.id, u.id, u.fullName, m.moodScore, m.createdAt FROM MoodEntry m JOIN m.user u "
+            + "WHERE m.createdAt >= :start AND m.createdAt < :end "
+            + "AND (:counselorId = 0 OR u.id IN (SELECT a.student.id FROM Appointment a WHERE a.counselor.id = :counselorId)) "
+            + "ORDER BY m.createdAt, m.id")
+    Stream<Object[]> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("counselorId") long counselorId);
 }
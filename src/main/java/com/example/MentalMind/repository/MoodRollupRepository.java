@@ -0,0 +1,115 @@
+package com.example.MentalMind.repository;
+
+import com.example.MentalMind.model.MoodRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MoodRollupRepository extends JpaRepository<MoodRollup, Long> {
+
+    // Rollup rows of the given series within [from, to), ordered by series then bucket
+    @Query("SELECT r FROM MoodRollup r WHERE r.granularity = :granularity AND r.studentId IN :studentIds "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.studentId, r.bucketStart")
+    List<MoodRollup> findSeries(@Param("granularity") String granularity,
+            @Param("studentIds") Collection<Long> studentIds,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Add one new entry to the student's and the campus day and week buckets, creating missing buckets
+    @Modifying
+    @Query(value = "INSERT INTO mood_rollups (granularity, student_id, bucket_start, entry_count, score_sum, score_min, score_max) "
+            + "VALUES ('DAY', :studentId, :day, 1, :score, :score, :score), "
+            + "('WEEK', :studentId, :week, 1, :score, :score, :score), "
+            + "('DAY', 0, :day, 1, :score, :score, :score), "
+            + "('WEEK', 0, :week, 1, :score, :score, :score) "
+            + "ON DUPLICATE KEY UPDATE entry_count = entry_count + 1, score_sum = score_sum + VALUES(score_sum), "
+            + "score_min = LEAST(COALESCE(score_min, VALUES(score_min)), VALUES(score_min)), "
+            + "score_max = GREATEST(COALESCE(score_max, VALUES(score_max)), VALUES(score_max))",
+            nativeQuery = true)
+    int addEntry(@Param("studentId") Long studentId, @Param("day") LocalDate day,
+            @Param("week") LocalDate week, @Param("score") int score);
+
+    // Replace one entry's score in the student's and the campus day and week buckets
+    @Modifying
+    @Query(value = "UPDATE mood_rollups SET score_sum = score_sum + :newScore - :oldScore, "
+            + "score_min = LEAST(score_min, :newScore), score_max = GREATEST(score_max, :newScore) "
+            + "WHERE student_id IN (:studentId, 0) "
+            + "AND ((granularity = 'DAY' AND bucket_start = :day) OR (granularity = 'WEEK' AND bucket_start = :week))",
+            nativeQuery = true)
+    int replaceScore(@Param("studentId") Long studentId, @Param("day") LocalDate day, @Param("week") LocalDate week,
+            @Param("oldScore") int oldScore, @Param("newScore") int newScore);
+
+    // Recompute min and max from mood_entries for those of the four buckets where the old score was a bound
+    @Modifying
+    @Query(value = "UPDATE mood_rollups r SET "
+            + "r.score_min = (SELECT MIN(m.mood_score) FROM mood_entries m WHERE m.created_at >= r.bucket_start "
+            + "AND m.created_at < r.bucket_start + INTERVAL (CASE WHEN r.granularity = 'WEEK' THEN 7 ELSE 1 END) DAY "
+            + "AND (r.student_id = 0 OR m.user_id = r.student_id)), "
+            + "r.score_max = (SELECT MAX(m.mood_score) FROM mood_entries m WHERE m.created_at >= r.bucket_start "
+            + "AND m.created_at < r.bucket_start + INTERVAL (CASE WHEN r.granularity = 'WEEK' THEN 7 ELSE 1 END) DAY "
+            + "AND (r.student_id = 0 OR m.user_id = r.student_id)) "
+            + "WHERE r.student_id IN (:studentId, 0) "
+            + "AND ((r.granularity = 'DAY' AND r.bucket_start = :day) OR (r.granularity = 'WEEK' AND r.bucket_start = :week)) "
+            + "AND (r.score_min = :oldScore OR r.score_max = :oldScore)",
+            nativeQuery = true)
+    int refreshBounds(@Param("studentId") Long studentId, @Param("day") LocalDate day,
+            @Param("week") LocalDate week, @Param("oldScore") int oldScore);
+
+    // Backfill: rebuild per-student day buckets from mood_entries in [start, end)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO mood_rollups (granularity, student_id, bucket_start, entry_count, score_sum, score_min, score_max) "
+            + "SELECT 'DAY', m.user_id, DATE(m.created_at), COUNT(*), SUM(m.mood_score), MIN(m.mood_score), MAX(m.mood_score) "
+            + "FROM mood_entries m WHERE m.created_at >= :start AND m.created_at < :end "
+            + "GROUP BY m.user_id, DATE(m.created_at) "
+            + "ON DUPLICATE KEY UPDATE entry_count = VALUES(entry_count), score_sum = VALUES(score_sum), "
+            + "score_min = VALUES(score_min), score_max = VALUES(score_max)",
+            nativeQuery = true)
+    int rebuildStudentDays(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Backfill: rebuild campus day buckets from mood_entries in [start, end)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO mood_rollups (granularity, student_id, bucket_start, entry_count, score_sum, score_min, score_max) "
+            + "SELECT 'DAY', 0, DATE(m.created_at), COUNT(*), SUM(m.mood_score), MIN(m.mood_score), MAX(m.mood_score) "
+            + "FROM mood_entries m WHERE m.created_at >= :start AND m.created_at < :end "
+            + "GROUP BY DATE(m.created_at) "
+            + "ON DUPLICATE KEY UPDATE entry_count = VALUES(entry_count), score_sum = VALUES(score_sum), "
+            + "score_min = VALUES(score_min), score_max = VALUES(score_max)",
+            nativeQuery = true)
+    int rebuildCampusDays(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Backfill: rebuild per-student week buckets (weeks start on Monday) from mood_entries in [start, end)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO mood_rollups (granularity, student_id, bucket_start, entry_count, score_sum, score_min, score_max) "
+            + "SELECT 'WEEK', m.user_id, DATE(m.created_at) - INTERVAL WEEKDAY(m.created_at) DAY, "
+            + "COUNT(*), SUM(m.mood_score), MIN(m.mood_score), MAX(m.mood_score) "
+            + "FROM mood_entries m WHERE m.created_at >= :start AND m.created_at < :end "
+            + "GROUP BY m.user_id, DATE(m.created_at) - INTERVAL WEEKDAY(m.created_at) DAY "
+            + "ON DUPLICATE KEY UPDATE entry_count = VALUES(entry_count), score_sum = VALUES(score_sum), "
+            + "score_min = VALUES(score_min), score_max = VALUES(score_max)",
+            nativeQuery = true)
+    int rebuildStudentWeeks(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Backfill: rebuild campus week buckets (weeks start on Monday) from mood_entries in [start, end)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO mood_rollups (granularity, student_id, bucket_start, entry_count, score_sum, score_min, score_max) "
+            + "SELECT 'WEEK', 0, DATE(m.created_at) - INTERVAL WEEKDAY(m.created_at) DAY, "
+            + "COUNT(*), SUM(m.mood_score), MIN(m.mood_score), MAX(m.mood_score) "
+            + "FROM mood_entries m WHERE m.created_at >= :start AND m.created_at < :end "
+            + "GROUP BY DATE(m.created_at) - INTERVAL WEEKDAY(m.created_at) DAY "
+            + "ON DUPLICATE KEY UPDATE entry_count = VALUES(entry_count), score_sum = VALUES(score_sum), "
+            + "score_min = VALUES(score_min), score_max = VALUES(score_max)",
+            nativeQuery = true)
+    int rebuildCampusWeeks(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -1,7 +1,9 @@
 package com.example.MentalMind.repository;
 
+import com.example.MentalMind.dto.ResourceCard;
 import com.example.MentalMind.model.Resource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -9,11 +11,11 @@ import java.util.List;
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
     List<Resource> findByIsActiveTrue();
 
-    List<Resource> findByTypeAndIsActiveTrue(String type);
-
-    List<Resource> findByTitleContainingIgnoreCaseAndIsActiveTrue(String title);
-
-    List<Resource> findByCategoryAndIsActiveTrue(String category);
-
-    List<Resource> findByCategoryInAndIsActiveTrue(List<String> categories);
-}
\ No newline at end of file
+    // Card fields of all active resources, oldest first; content is read only for video cards
+    // without a cover image, to find their YouTube thumbnail
+    @Query("SELECT new com.example.MentalMind.dto.ResourceCard(r.id, r.title, r.type, r.category, r.description, "
+            + "r.icon, r.gradientFrom, r.gradientTo, r.badgeColor, r.coverImageUrl, r.createdAt, "
+            + "CASE WHEN r.type = 'video' AND (r.coverImageUrl IS NULL OR r.coverImageUrl = '') THEN r.content ELSE NULL END) "
+            + "FROM Resource r WHERE r.isActive = true ORDER BY r.id")
+    List<ResourceCard> findActiveCards();
+}
@@ -2,13 +2,19 @@ package com.example.MentalMind.repository;
 
 import com.example.MentalMind.model.SelfAssessmentResult;
 import com.example.MentalMind.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHint;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SelfAssessmentRepository extends JpaRepository<SelfAssessmentResult, Long> {
@@ -19,7 +25,33 @@ public interface SelfAssessmentRepository extends JpaRepository<SelfAssessmentRe
     // Find all assessments by user (for history if needed later)
     List<SelfAssessmentResult> findByUserOrderByCompletedAtDesc(User user);
 
+    // Most recent assessments across all students with their users fetched (uses idx_assessment_completed)
+    @Query("SELECT s FROM SelfAssessmentResult s JOIN FETCH s.user ORDER BY s.completedAt DESC, s.id DESC")
+    List<SelfAssessmentResult> findRecentWithUser(Pageable pageable);
+
     // Check if user has taken assessment today
     @Query("SELECT COUNT(s) > 0 FROM SelfAssessmentResult s WHERE s.user = :user AND s.completedAt >= :startOfDay")
     boolean hasCompletedToday(User user, LocalDateTime startOfDay);
+
+    // Assessment counts grouped by raw score: rows of [score, count]
+    @Query("SELECT s.score, COUNT(s) FROM SelfAssessmentResult s GROUP BY s.score")
+    List<Object[]> countGroupedByScore();
+
+    // Assessment counts grouped by raw score for assessments completed in [start, end): rows of [score, count]
+    @Query("SELECT s.score, COUNT(s) FROM SelfAssessmentResult s "
+            + "WHERE s.completedAt >= :start AND s.completedAt < :end GROUP BY s.score")
+    List<Object[]> countGroupedByScoreBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Export rows [id, studentId, studentName, score, stressLevel, completedAt] in [start, end), oldest first.
+    // counselorId = 0 means all students, otherwise students who have appointments with that counselor.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = MoodEntryRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id, u.id, u.fullName, r.score, r.stressLevel, r.completedAt FROM SelfAssessmentResult r JOIN r.user u "
+            + "WHERE r.completedAt >= :start AND r.completedAt < :end "
+            + "AND (:counselorId = 0 OR u.id IN (SELECT a.student.id FROM Appointment a WHERE a.counselor.id = :counselorId)) "
+            + "ORDER BY r.completedAt, r.id")
+    Stream<Object[]> streamForExport(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+            @Param("counselorId") long counselorId);
 }
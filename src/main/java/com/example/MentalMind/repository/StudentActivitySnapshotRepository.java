@@ -0,0 +1,35 @@
+package com.example.MentalMind.repository;
+
+import com.example.MentalMind.model.StudentActivitySnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StudentActivitySnapshotRepository extends JpaRepository<StudentActivitySnapshot, Long> {
+
+    Optional<StudentActivitySnapshot> findByStudentId(Long studentId);
+
+    // Count students whose latest mood entry is after the given time
+    long countByLastMoodAtAfter(LocalDateTime since);
+
+    // Latest mood time per student: rows of [studentId, lastMoodAt]
+    @Query("SELECT a.student.id, a.lastMoodAt FROM StudentActivitySnapshot a WHERE a.lastMoodAt IS NOT NULL")
+    List<Object[]> findLastMoodTimes();
+
+    // Students whose latest assessment is HIGH risk, highest score first
+    @Query("SELECT a FROM StudentActivitySnapshot a JOIN FETCH a.student "
+            + "WHERE a.riskRank = 0 ORDER BY a.lastAssessmentScore DESC")
+    List<StudentActivitySnapshot> findHighRisk(Pageable pageable);
+
+    // Students whose latest mood dropped 2+ points to 3 or below, most recent first
+    @Query("SELECT a FROM StudentActivitySnapshot a JOIN FETCH a.student "
+            + "WHERE a.lastMoodScore <= 3 AND a.previousMoodScore IS NOT NULL "
+            + "AND a.lastMoodScore < a.previousMoodScore - 1 ORDER BY a.lastMoodAt DESC")
+    List<StudentActivitySnapshot> findDecliningMoods(Pageable pageable);
+}
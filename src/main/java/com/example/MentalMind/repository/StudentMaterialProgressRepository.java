@@ -2,6 +2,8 @@ package com.example.MentalMind.repository;
 
 import com.example.MentalMind.model.StudentMaterialProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +14,14 @@ public interface StudentMaterialProgressRepository extends JpaRepository<Student
     Optional<StudentMaterialProgress> findByStudentIdAndMaterialId(Long studentId, Long materialId);
     List<StudentMaterialProgress> findByMaterialId(Long materialId);
     List<StudentMaterialProgress> findByStudentIdAndIsCompletedTrue(Long studentId);
+    long countByStudentIdAndIsCompletedTrue(Long studentId);
+
+    // Ids of the materials a student completed, without loading progress rows
+    @Query("SELECT p.material.id FROM StudentMaterialProgress p WHERE p.studentId = :studentId AND p.isCompleted = true")
+    List<Long> findCompletedMaterialIds(@Param("studentId") Long studentId);
+
+    // Ids of the materials a student completed within one module
+    @Query("SELECT p.material.id FROM StudentMaterialProgress p "
+            + "WHERE p.studentId = :studentId AND p.isCompleted = true AND p.material.module.id = :moduleId")
+    List<Long> findCompletedMaterialIdsForModule(@Param("studentId") Long studentId, @Param("moduleId") Long moduleId);
 }
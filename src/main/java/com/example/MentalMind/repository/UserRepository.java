@@ -1,8 +1,15 @@
 package com.example.MentalMind.repository;
 
+import com.example.MentalMind.dto.StudentOverviewRow;
 import com.example.MentalMind.model.User;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +19,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailAndRole(String email, String role);
     boolean existsByEmail(String email);
     List<User> findByRole(String role);
+    long countByRole(String role);
+
+    // Lock a user row for the rest of the transaction (serializes bookings per counselor)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> lockById(@Param("id") Long id);
+
+    // Students that have no activity snapshot yet
+    @Query("SELECT u FROM User u WHERE u.role = 'student' "
+            + "AND NOT EXISTS (SELECT a FROM StudentActivitySnapshot a WHERE a.student = u)")
+    List<User> findStudentsWithoutActivitySnapshot();
+
+    // Risk rank from the activity snapshot: 0 = HIGH, 1 = MODERATE, 2 = LOW or no snapshot
+    String RISK_RANK = "COALESCE(a.riskRank, 2)";
+
+    // One keyset page of the counselor student overview, ordered by (riskRank, id).
+    // Latest assessment, latest mood time and risk come from the per-student activity snapshot;
+    // search, risk and activity filters are all applied in the database.
+    @Query("SELECT u.id AS id, u.fullName AS fullName, u.email AS email, "
+            + "a.lastAssessmentScore AS lastScore, a.lastStressLevel AS stressLevel, "
+            + "a.lastAssessmentAt AS lastAssessmentAt, a.lastMoodAt AS lastMoodAt, "
+            + RISK_RANK + " AS riskRank "
+            + "FROM User u LEFT JOIN StudentActivitySnapshot a ON a.student = u "
+            + "WHERE u.role = 'student' "
+            + "AND (LOWER(u.fullName) LIKE :pattern ESCAPE '!' OR LOWER(u.email) LIKE :pattern ESCAPE '!') "
+            + "AND " + RISK_RANK + " <= :maxRiskRank "
+            + "AND (:activeOnly = false OR a.lastActiveAt > :activeSince) "
+            + "AND (" + RISK_RANK + " > :afterRank OR (" + RISK_RANK + " = :afterRank AND u.id > :afterId)) "
+            + "ORDER BY " + RISK_RANK + ", u.id")
+    List<StudentOverviewRow> findStudentOverviewPage(@Param("pattern") String pattern,
+            @Param("maxRiskRank") int maxRiskRank,
+            @Param("activeOnly") boolean activeOnly,
+            @Param("activeSince") LocalDateTime activeSince,
+            @Param("afterRank") int afterRank,
+            @Param("afterId") long afterId,
+            Pageable pageable);
 }
@@ -1,18 +1,69 @@
 package com.example.MentalMind.repository;
 
 import com.example.MentalMind.model.UserResourceBookmark;
-import com.example.MentalMind.model.User;
-import com.example.MentalMind.model.Resource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserResourceBookmarkRepository extends JpaRepository<UserResourceBookmark, Long> {
-    List<UserResourceBookmark> findByUserAndIsActiveTrue(User user);
-    Optional<UserResourceBookmark> findByUserAndResourceAndIsActiveTrue(User user, Resource resource);
-    boolean existsByUserAndResourceAndBookmarkTypeAndIsActiveTrue(User user, Resource resource, String bookmarkType);
-    List<UserResourceBookmark> findByResourceAndIsActiveTrue(Resource resource);
-    Optional<UserResourceBookmark> findByUserAndResource(User user, Resource resource);
-}
\ No newline at end of file
+
+    // (resourceId, bookmarkType) of the user's active bookmarks on active resources, newest first
+    @Query("SELECT r.id, b.bookmarkType FROM UserResourceBookmark b JOIN b.resource r "
+            + "WHERE b.user.id = :userId AND b.isActive = true AND r.isActive = true ORDER BY b.createdAt DESC")
+    List<Object[]> findActiveBookmarkStates(@Param("userId") Long userId);
+
+    // Type of the user's active bookmark on a resource, if any
+    @Query("SELECT b.bookmarkType FROM UserResourceBookmark b "
+            + "WHERE b.user.id = :userId AND b.resource.id = :resourceId AND b.isActive = true")
+    Optional<String> findActiveBookmarkType(@Param("userId") Long userId, @Param("resourceId") Long resourceId);
+
+    // Create the (user, resource) bookmark or reactivate/retype the existing row; inserts nothing for a missing or inactive resource
+    @Modifying
+    @Query(value = "INSERT INTO user_resource_bookmarks (user_id, resource_id, bookmark_type, is_active, created_at, updated_at) "
+            + "SELECT :userId, r.id, :bookmarkType, TRUE, :now, :now FROM resources r "
+            + "WHERE r.id = :resourceId AND r.is_active = TRUE "
+            + "ON DUPLICATE KEY UPDATE created_at = IF(is_active, created_at, :now), "
+            + "bookmark_type = :bookmarkType, is_active = TRUE, updated_at = :now",
+            nativeQuery = true)
+    int upsertBookmark(@Param("userId") Long userId, @Param("resourceId") Long resourceId,
+            @Param("bookmarkType") String bookmarkType, @Param("now") LocalDateTime now);
+
+    // Hard delete the user's bookmark on a resource
+    @Modifying
+    @Query("DELETE FROM UserResourceBookmark b WHERE b.user.id = :userId AND b.resource.id = :resourceId")
+    int deleteByUserIdAndResourceId(@Param("userId") Long userId, @Param("resourceId") Long resourceId);
+
+    // Soft-delete every active bookmark on a resource in one statement
+    @Modifying
+    @Query("UPDATE UserResourceBookmark b SET b.isActive = false, b.updatedAt = :now "
+            + "WHERE b.resource.id = :resourceId AND b.isActive = true")
+    int deactivateByResourceId(@Param("resourceId") Long resourceId, @Param("now") LocalDateTime now);
+
+    // Unique keys over exactly (user_id, resource_id); 0 on databases created before the constraint
+    @Query(value = "SELECT COUNT(*) FROM (SELECT s.index_name FROM information_schema.statistics s "
+            + "WHERE s.table_schema = DATABASE() AND s.table_name = 'user_resource_bookmarks' AND s.non_unique = 0 "
+            + "GROUP BY s.index_name HAVING COUNT(*) = 2 AND SUM(s.column_name IN ('user_id', 'resource_id')) = 2) uk",
+            nativeQuery = true)
+    long countUserResourceUniqueKeys();
+
+    // Delete all but one row per (user, resource): an active row wins, then the newest
+    @Modifying
+    @Query(value = "DELETE b FROM user_resource_bookmarks b JOIN user_resource_bookmarks keep "
+            + "ON keep.user_id = b.user_id AND keep.resource_id = b.resource_id "
+            + "AND (keep.is_active > b.is_active OR (keep.is_active = b.is_active AND keep.id > b.id))",
+            nativeQuery = true)
+    int deleteDuplicateBookmarks();
+
+    @Modifying
+    @Query(value = "ALTER TABLE user_resource_bookmarks "
+            + "ADD CONSTRAINT uk_bookmark_user_resource UNIQUE (user_id, resource_id)",
+            nativeQuery = true)
+    void addUserResourceUniqueKey();
+}
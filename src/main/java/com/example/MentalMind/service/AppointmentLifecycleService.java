@@ -0,0 +1,87 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background sweeper for the appointment lifecycle.
+ *
+ * Once an appointment's time has passed, PENDING requests are rejected and
+ * APPROVED sessions are completed, each with one set-based UPDATE per sweep.
+ * Read paths in AppointmentService no longer write.
+ */
+@Service
+public class AppointmentLifecycleService {
+
+    public static final String AUTO_REJECT_REASON = "Automatically rejected - appointment time has passed";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
+    @Autowired
+    private CounselorAvailabilityService availabilityService;
+
+    // Sweep metrics since startup
+    private final AtomicLong sweepCount = new AtomicLong();
+    private final AtomicLong totalRejected = new AtomicLong();
+    private final AtomicLong totalCompleted = new AtomicLong();
+    private volatile int lastRejected = 0;
+    private volatile int lastCompleted = 0;
+    private volatile long lastDurationMillis = 0;
+    private volatile LocalDateTime lastSweepAt;
+
+    /**
+     * Move overdue appointments to their final status
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.MINUTES)
+    @Transactional
+    public void sweepOverdue() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now(AppointmentService.KUALA_LUMPUR_ZONE);
+
+        int rejected = appointmentRepository.rejectOverduePending(now, AUTO_REJECT_REASON);
+        int completed = appointmentRepository.completeOverdueApproved(now);
+
+        lastRejected = rejected;
+        lastCompleted = completed;
+        lastDurationMillis = System.currentTimeMillis() - started;
+        lastSweepAt = now;
+        sweepCount.incrementAndGet();
+        totalRejected.addAndGet(rejected);
+        totalCompleted.addAndGet(completed);
+
+        // Past days are never offered for booking
+        availabilityService.pruneBefore(now.toLocalDate());
+
+        if (rejected > 0 || completed > 0) {
+            dashboardAggregateService.onAppointmentChanged();
+        }
+    }
+
+    /**
+     * Sweep metrics: totals since startup plus the last sweep's counts
+     */
+    public Map<String, Object> getSweepStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("sweeps", sweepCount.get());
+        stats.put("totalRejected", totalRejected.get());
+        stats.put("totalCompleted", totalCompleted.get());
+        stats.put("lastRejected", lastRejected);
+        stats.put("lastCompleted", lastCompleted);
+        stats.put("lastDurationMillis", lastDurationMillis);
+        stats.put("lastSweepAt", lastSweepAt);
+        return stats;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.MentalMind.service;
 
 import com.example.MentalMind.model.Appointment;
+import com.example.MentalMind.model.CounselorSettings;
 import com.example.MentalMind.model.User;
 import com.example.MentalMind.repository.AppointmentRepository;
+import com.example.MentalMind.repository.CounselorSettingsRepository;
+import com.example.MentalMind.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
@@ -12,7 +16,10 @@ import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -23,9 +30,25 @@ public class AppointmentService {
 
     @Autowired
     private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
+    @Autowired
+    private CounselorAvailabilityService availabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CounselorSettingsRepository counselorSettingsRepository;
+
+    // Limits for the availability search
+    public static final int MAX_SEARCH_DAYS = 31;
+    public static final int MAX_SEARCH_RESULTS = 50;
     
     // Kuala Lumpur timezone
-    private static final ZoneId KUALA_LUMPUR_ZONE = ZoneId.of("Asia/Kuala_Lumpur");
+    public static final ZoneId KUALA_LUMPUR_ZONE = ZoneId.of("Asia/Kuala_Lumpur");
     
     // Get current time in Kuala Lumpur timezone
     private LocalDateTime getNowInKualaLumpur() {
@@ -40,13 +63,29 @@ public class AppointmentService {
         return appointmentRepository.existsActiveAtDateTime(student, dateTime);
     }
 
+    // Check if the counselor already has an appointment overlapping a session at this time
+    // (optionally excluding an appointment id)
+    public boolean hasCounselorConflict(User counselor, LocalDateTime dateTime, Long excludeAppointmentId) {
+        return availabilityService.isSlotTaken(counselor, dateTime, excludeAppointmentId);
+    }
+
     // Create a new appointment request
+    @Transactional
     public Appointment createAppointment(User student, User counselor, LocalDateTime appointmentDateTime, String reason) {
+        // Concurrent bookings for the same counselor wait here. Locking before any read means the
+        // transaction's snapshot is taken after the previous booking committed.
+        userRepository.lockById(counselor.getId());
         if (hasStudentConflict(student, appointmentDateTime, null)) {
             throw new IllegalStateException("Student already has an appointment at this time");
         }
+        if (hasCounselorConflict(counselor, appointmentDateTime, null)) {
+            throw new IllegalStateException("Counselor is not available at this time");
+        }
         Appointment appointment = new Appointment(student, counselor, appointmentDateTime, reason);
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        dashboardAggregateService.onAppointmentChanged();
+        availabilityService.onAppointmentChanged(counselor.getId(), appointmentDateTime.toLocalDate());
+        return saved;
     }
 
     // Get all appointments for a student
@@ -54,48 +93,10 @@ public class AppointmentService {
         return appointmentRepository.findByStudentOrderByAppointmentDateTimeAsc(student);
     }
 
-    // Auto-complete APPROVED appointments that are in the past
-    private void autoCompleteOverdueAppointments(List<Appointment> appointments) {
-        LocalDateTime nowKL = getNowInKualaLumpur();
-        for (Appointment appt : appointments) {
-            if ("APPROVED".equals(appt.getStatus()) && appt.getAppointmentDateTime() != null && 
-                appt.getAppointmentDateTime().isBefore(nowKL)) {
-                appt.setStatus("COMPLETED");
-                appt.setUpdatedAt(nowKL);
-                appointmentRepository.save(appt);
-            }
-        }
-    }
-    
-    // Auto-reject PENDING appointments that are in the past
-    private void autoRejectOverduePendingAppointments(List<Appointment> appointments) {
-        LocalDateTime nowKL = getNowInKualaLumpur();
-        for (Appointment appt : appointments) {
-            if ("PENDING".equals(appt.getStatus()) && appt.getAppointmentDateTime() != null && 
-                appt.getAppointmentDateTime().isBefore(nowKL)) {
-                appt.setStatus("REJECTED");
-                appt.setRejectionReason("Automatically rejected - appointment time has passed");
-                appt.setUpdatedAt(nowKL);
-                appointmentRepository.save(appt);
-            }
-        }
-    }
-
     // Get upcoming appointments for a student
     public List<Appointment> getStudentUpcomingAppointments(User student) {
-        // Get ALL appointments (not just upcoming) to check for overdue APPROVED/PENDING ones
-        List<Appointment> allAppointments = appointmentRepository.findByStudentOrderByAppointmentDateTimeAsc(student);
-        
-        // Auto-complete any APPROVED appointments that are in the past
-        autoCompleteOverdueAppointments(allAppointments);
-        // Auto-reject any PENDING appointments that are in the past
-        autoRejectOverduePendingAppointments(allAppointments);
-        
-        // Return only future appointments
-        LocalDateTime nowKL = getNowInKualaLumpur();
-        return allAppointments.stream()
-                .filter(a -> a.getAppointmentDateTime() != null && a.getAppointmentDateTime().isAfter(nowKL))
-                .toList();
+        // Overdue PENDING/APPROVED appointments are settled by AppointmentLifecycleService
+        return appointmentRepository.findStudentAppointmentsAfter(student, getNowInKualaLumpur());
     }
 
     // Get past appointments for a student
@@ -110,19 +111,8 @@ public class AppointmentService {
 
     // Get upcoming appointments for a counselor
     public List<Appointment> getCounselorUpcomingAppointments(User counselor) {
-        // Get ALL appointments (not just upcoming) to check for overdue APPROVED/PENDING ones
-        List<Appointment> allAppointments = appointmentRepository.findByCounselorOrderByAppointmentDateTimeAsc(counselor);
-        
-        // Auto-complete any APPROVED appointments that are in the past
-        autoCompleteOverdueAppointments(allAppointments);
-        // Auto-reject any PENDING appointments that are in the past
-        autoRejectOverduePendingAppointments(allAppointments);
-        
-        // Return only future appointments
-        LocalDateTime nowKL = getNowInKualaLumpur();
-        return allAppointments.stream()
-                .filter(a -> a.getAppointmentDateTime() != null && a.getAppointmentDateTime().isAfter(nowKL))
-                .toList();
+        // Overdue PENDING/APPROVED appointments are settled by AppointmentLifecycleService
+        return appointmentRepository.findCounselorAppointmentsAfter(counselor, getNowInKualaLumpur());
     }
 
     // Get pending appointments for a counselor
@@ -137,17 +127,9 @@ public class AppointmentService {
 
     // Get today's appointments for a counselor
     public List<Appointment> getCounselorTodaysAppointments(User counselor) {
-        List<Appointment> allAppointments = appointmentRepository.findByCounselorOrderByAppointmentDateTimeAsc(counselor);
         LocalDate today = LocalDate.now();
-        // Auto-complete any overdue APPROVED appointments
-        autoCompleteOverdueAppointments(allAppointments);
-        // Auto-reject any overdue PENDING appointments
-        autoRejectOverduePendingAppointments(allAppointments);
-        return allAppointments.stream()
-                .filter(a -> a.getAppointmentDateTime() != null && 
-                        a.getAppointmentDateTime().toLocalDate().equals(today) &&
-                        "APPROVED".equals(a.getStatus()))
-                .toList();
+        return appointmentRepository.findCounselorAppointmentsBetweenWithStatus(
+                counselor, today.atStartOfDay(), today.plusDays(1).atStartOfDay(), List.of("APPROVED"));
     }
 
     // Approve an appointment
@@ -157,7 +139,11 @@ public class AppointmentService {
             Appointment appointment = optionalAppointment.get();
             appointment.setStatus("APPROVED");
             appointment.setUpdatedAt(LocalDateTime.now());
-            return appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            dashboardAggregateService.onAppointmentChanged();
+            availabilityService.onAppointmentChanged(saved.getCounselor().getId(),
+                    saved.getAppointmentDateTime().toLocalDate());
+            return saved;
         }
         return null;
     }
@@ -170,7 +156,11 @@ public class AppointmentService {
             appointment.setStatus("REJECTED");
             appointment.setRejectionReason(reason);
             appointment.setUpdatedAt(LocalDateTime.now());
-            return appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            dashboardAggregateService.onAppointmentChanged();
+            availabilityService.onAppointmentChanged(saved.getCounselor().getId(),
+                    saved.getAppointmentDateTime().toLocalDate());
+            return saved;
         }
         return null;
     }
@@ -182,7 +172,11 @@ public class AppointmentService {
             Appointment appointment = optionalAppointment.get();
             appointment.setStatus("COMPLETED");
             appointment.setUpdatedAt(LocalDateTime.now());
-            return appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            dashboardAggregateService.onAppointmentChanged();
+            availabilityService.onAppointmentChanged(saved.getCounselor().getId(),
+                    saved.getAppointmentDateTime().toLocalDate());
+            return saved;
         }
         return null;
     }
@@ -194,26 +188,18 @@ public class AppointmentService {
             Appointment appointment = optionalAppointment.get();
             appointment.setStatus("CANCELLED");
             appointment.setUpdatedAt(LocalDateTime.now());
-            return appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            dashboardAggregateService.onAppointmentChanged();
+            availabilityService.onAppointmentChanged(saved.getCounselor().getId(),
+                    saved.getAppointmentDateTime().toLocalDate());
+            return saved;
         }
         return null;
     }
 
-    // Get appointment by id and check if it needs auto-completion or auto-rejection
+    // Get appointment by id
     public Optional<Appointment> getAppointmentById(Long id) {
-        Optional<Appointment> apptOpt = appointmentRepository.findById(id);
-        
-        // Auto-complete or auto-reject if needed
-        if (apptOpt.isPresent()) {
-            Appointment appt = apptOpt.get();
-            List<Appointment> singleList = List.of(appt);
-            autoCompleteOverdueAppointments(singleList);
-            autoRejectOverduePendingAppointments(singleList);
-            // Refresh from repository to get updated status
-            apptOpt = appointmentRepository.findById(id);
-        }
-        
-        return apptOpt;
+        return appointmentRepository.findById(id);
     }
 
     // Update appointment status
@@ -223,57 +209,122 @@ public class AppointmentService {
             Appointment appointment = optionalAppointment.get();
             appointment.setStatus(status);
             appointment.setUpdatedAt(LocalDateTime.now());
-            return appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            dashboardAggregateService.onAppointmentChanged();
+            availabilityService.onAppointmentChanged(saved.getCounselor().getId(),
+                    saved.getAppointmentDateTime().toLocalDate());
+            return saved;
         }
         return null;
     }
 
-    // Update appointment (for rescheduling)
+    // Update appointment (for rescheduling); the new time is checked again under the counselor lock
+    @Transactional
     public Appointment updateAppointment(Appointment appointment) {
-        return appointmentRepository.save(appointment);
+        User counselor = appointment.getCounselor();
+        LocalDateTime dateTime = appointment.getAppointmentDateTime();
+        userRepository.lockById(counselor.getId());
+        if (hasStudentConflict(appointment.getStudent(), dateTime, appointment.getId())) {
+            throw new IllegalStateException("Student already has an appointment at this time");
+        }
+        if (hasCounselorConflict(counselor, dateTime, appointment.getId())) {
+            throw new IllegalStateException("Counselor is not available at this time");
+        }
+        Appointment saved = appointmentRepository.save(appointment);
+        dashboardAggregateService.onAppointmentChanged();
+        // The previous date may have changed too, so drop the counselor's cached days
+        availabilityService.onCounselorAppointmentsChanged(saved.getCounselor().getId());
+        return saved;
     }
 
-    // Compute available slots for a counselor on a specific date
+    // Compute available slots for a counselor on a specific date from their working hours
     // Returns a list of maps with keys: "time" (HH:mm) and "available" (boolean)
     public List<Map<String, Object>> getAvailableSlots(User counselor, LocalDate date) {
-        List<Map<String, Object>> slots = new ArrayList<>();
-
-        // Define fixed 45-minute slots starting each hour 09:00 through 17:00 (inclusive start times)
-        LocalTime firstSlot = LocalTime.of(9, 0);
-        LocalTime lastSlot = LocalTime.of(17, 0);
-
-        // Collect counselor's appointments for the date (excluding REJECTED)
-        List<Appointment> counselorAppts = appointmentRepository.findByCounselorOrderByAppointmentDateTimeAsc(counselor);
-        List<LocalTime> occupied = new ArrayList<>();
-        for (Appointment a : counselorAppts) {
-            // Skip rejected appointments - they don't occupy the timeslot
-            if ("REJECTED".equals(a.getStatus())) {
-                continue;
+        return availabilityService.getSlots(counselor, date);
+    }
+
+    // Search the earliest free slots across counselors and days in [from, to]
+    // Optional filters: a single counselor id, and a specialization substring (case-insensitive)
+    // Returns maps with keys: "counselorId", "counselorName", "specialization", "date" (yyyy-MM-dd), "time" (HH:mm)
+    public List<Map<String, Object>> searchAvailableSlots(LocalDate from, LocalDate to, Long counselorId,
+            String specialization, int limit) {
+        LocalDateTime nowKL = getNowInKualaLumpur();
+        if (from.isBefore(nowKL.toLocalDate())) {
+            from = nowKL.toLocalDate();
+        }
+        if (to.isAfter(from.plusDays(MAX_SEARCH_DAYS - 1))) {
+            to = from.plusDays(MAX_SEARCH_DAYS - 1);
+        }
+        limit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (to.isBefore(from)) {
+            return results;
+        }
+
+        List<User> counselors = new ArrayList<>();
+        for (User c : userRepository.findByRole("counselor")) {
+            if (counselorId == null || counselorId.equals(c.getId())) {
+                counselors.add(c);
             }
-            if (a.getAppointmentDateTime() != null && a.getAppointmentDateTime().toLocalDate().equals(date)) {
-                occupied.add(a.getAppointmentDateTime().toLocalTime().withSecond(0).withNano(0));
+        }
+        if (counselors.isEmpty()) {
+            return results;
+        }
+
+        Map<Long, String> specializations = new HashMap<>();
+        for (CounselorSettings settings : counselorSettingsRepository.findByCounselorIn(counselors)) {
+            specializations.put(settings.getCounselor().getId(), settings.getSpecialization());
+        }
+        if (specialization != null && !specialization.isBlank()) {
+            String needle = specialization.trim().toLowerCase(Locale.ROOT);
+            counselors.removeIf(c -> {
+                String s = specializations.get(c.getId());
+                return s == null || !s.toLowerCase(Locale.ROOT).contains(needle);
+            });
+            if (counselors.isEmpty()) {
+                return results;
             }
         }
+        counselors.sort(Comparator.comparing(User::getId));
 
+        // One load for every counselor and day, then walk days in order until enough slots are found
+        Map<Long, Map<LocalDate, BitSet>> occupancy = availabilityService.getOccupancy(counselors, from, to);
         DateTimeFormatter tf = DateTimeFormatter.ofPattern("HH:mm");
-
-        LocalTime currentSlot = firstSlot;
-        while (!currentSlot.isAfter(lastSlot)) {
-            final LocalTime slotTime = currentSlot;
-            boolean isOccupied = occupied.stream().anyMatch(t -> t.equals(slotTime));
-            Map<String, Object> m = new HashMap<>();
-            m.put("time", slotTime.format(tf));
-            m.put("available", !isOccupied);
-            slots.add(m);
-            // Each appointment takes 45 minutes; we expose starts on the hour for consistency
-            currentSlot = currentSlot.plusHours(1);
+        for (LocalDate date = from; !date.isAfter(to) && results.size() < limit; date = date.plusDays(1)) {
+            List<Object[]> daySlots = new ArrayList<>();
+            for (User c : counselors) {
+                for (LocalTime start : availabilityService.getFreeSlotStarts(c.getId(), date, occupancy.get(c.getId()).get(date))) {
+                    if (date.atTime(start).isAfter(nowKL)) {
+                        daySlots.add(new Object[]{start, c});
+                    }
+                }
+            }
+            // Stable sort keeps counselor id order for equal times
+            daySlots.sort(Comparator.comparing(row -> (LocalTime) row[0]));
+            for (Object[] row : daySlots) {
+                if (results.size() >= limit) {
+                    break;
+                }
+                User c = (User) row[1];
+                Map<String, Object> m = new HashMap<>();
+                m.put("counselorId", c.getId());
+                m.put("counselorName", c.getFullName());
+                m.put("specialization", specializations.get(c.getId()));
+                m.put("date", date.toString());
+                m.put("time", ((LocalTime) row[0]).format(tf));
+                results.add(m);
+            }
         }
-
-        return slots;
+        return results;
     }
 
     // Delete appointment
     public void deleteAppointment(Long appointmentId) {
-        appointmentRepository.deleteById(appointmentId);
+        appointmentRepository.findById(appointmentId).ifPresent(a -> {
+            appointmentRepository.delete(a);
+            availabilityService.onAppointmentChanged(a.getCounselor().getId(),
+                    a.getAppointmentDateTime().toLocalDate());
+        });
+        dashboardAggregateService.onAppointmentChanged();
     }
 }
@@ -0,0 +1,152 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.StressLevel;
+import com.example.MentalMind.repository.SelfAssessmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Self-assessment analytics computed from a single GROUP BY score query.
+ *
+ * PSS-10 scores are integers from 0 to 40, so the per-score counts are an
+ * exact histogram of at most 41 rows. Stress-level distributions, the mean
+ * and percentiles are all derived from it, whatever the number of
+ * assessments. Stress bands come from StressLevel, the same definitions
+ * SelfAssessmentService uses to classify each result.
+ */
+@Service
+public class AssessmentAnalyticsService {
+
+    public static final int[] DEFAULT_PERCENTILES = {25, 50, 75, 90};
+
+    @Autowired
+    private SelfAssessmentRepository selfAssessmentRepository;
+
+    /**
+     * Analytics for assessments completed on the days [from, to]; null bounds mean all time
+     */
+    public AssessmentAnalytics getAnalytics(LocalDate from, LocalDate to) {
+        List<Object[]> rows = from == null && to == null
+                ? selfAssessmentRepository.countGroupedByScore()
+                : selfAssessmentRepository.countGroupedByScoreBetween(
+                        (from != null ? from : LocalDate.of(1970, 1, 1)).atStartOfDay(),
+                        (to != null ? to.plusDays(1) : LocalDate.now().plusDays(1)).atStartOfDay());
+
+        long[] histogram = new long[StressLevel.MAX_SCORE - StressLevel.MIN_SCORE + 1];
+        for (Object[] row : rows) {
+            int score = Math.max(StressLevel.MIN_SCORE, Math.min(StressLevel.MAX_SCORE, (Integer) row[0]));
+            histogram[score - StressLevel.MIN_SCORE] += (Long) row[1];
+        }
+        return new AssessmentAnalytics(histogram);
+    }
+
+    public static class AssessmentAnalytics {
+        // Count per score, index 0 = StressLevel.MIN_SCORE
+        private final long[] histogram;
+        private final long total;
+
+        public AssessmentAnalytics(long[] histogram) {
+            this.histogram = histogram;
+            long sum = 0;
+            for (long count : histogram) {
+                sum += count;
+            }
+            this.total = sum;
+        }
+
+        public long getTotal() { return total; }
+
+        public long getCount(int score) {
+            int i = score - StressLevel.MIN_SCORE;
+            return i >= 0 && i < histogram.length ? histogram[i] : 0;
+        }
+
+        /**
+         * Number of assessments per stress level, in band order
+         */
+        public Map<StressLevel, Long> getLevelCounts() {
+            Map<StressLevel, Long> counts = new LinkedHashMap<>();
+            for (StressLevel level : StressLevel.values()) {
+                long count = 0;
+                for (int score = level.getMinScore(); score <= level.getMaxScore(); score++) {
+                    count += getCount(score);
+                }
+                counts.put(level, count);
+            }
+            return counts;
+        }
+
+        /**
+         * Mean score, or null when there are no assessments
+         */
+        public Double getMean() {
+            if (total == 0) {
+                return null;
+            }
+            double sum = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                sum += (double) (i + StressLevel.MIN_SCORE) * histogram[i];
+            }
+            return Math.round(sum / total * 10.0) / 10.0;
+        }
+
+        /**
+         * Nearest-rank percentile score (1-100), or null when there are no assessments
+         */
+        public Integer getPercentile(int percentile) {
+            if (total == 0) {
+                return null;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return i + StressLevel.MIN_SCORE;
+                }
+            }
+            return StressLevel.MAX_SCORE;
+        }
+
+        /**
+         * JSON-friendly view: total, mean, percentiles, per-level counts and the per-score histogram
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> data = new HashMap<>();
+            data.put("totalAssessments", total);
+            data.put("mean", getMean());
+
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            for (int p : DEFAULT_PERCENTILES) {
+                percentiles.put("p" + p, getPercentile(p));
+            }
+            data.put("percentiles", percentiles);
+
+            List<Map<String, Object>> levels = new ArrayList<>();
+            getLevelCounts().forEach((level, count) -> {
+                Map<String, Object> m = new HashMap<>();
+                m.put("level", level.name());
+                m.put("label", level.getDisplayName());
+                m.put("minScore", level.getMinScore());
+                m.put("maxScore", level.getMaxScore());
+                m.put("count", count);
+                levels.add(m);
+            });
+            data.put("stressLevels", levels);
+
+            List<Map<String, Object>> scores = new ArrayList<>();
+            for (int i = 0; i < histogram.length; i++) {
+                scores.add(Map.of("score", i + StressLevel.MIN_SCORE, "count", histogram[i]));
+            }
+            data.put("histogram", scores);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.CounselorSettings;
+import com.example.MentalMind.model.User;
+import com.example.MentalMind.repository.AppointmentRepository;
+import com.example.MentalMind.repository.CounselorSettingsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counselor availability backed by per-day occupancy bitmaps.
+ *
+ * Each counselor day is a bitmap of 15-minute units marking time taken by
+ * non-rejected appointments. Bookable slots come from the counselor's
+ * CounselorSettings working hours: one session every hour from the day's
+ * start while the session still ends by the day's end. Days are loaded lazily
+ * with one range query and evicted by AppointmentService and
+ * CounselorSettingsService whenever appointments or working hours change.
+ * Evictions bump a per-counselor generation (again after commit); days loaded
+ * across a generation change are served once but not cached.
+ */
+@Service
+public class CounselorAvailabilityService {
+
+    // Session length and spacing between session starts
+    public static final int SESSION_MINUTES = 45;
+    public static final int SLOT_STEP_MINUTES = 60;
+
+    private static final int UNIT_MINUTES = 15;
+    private static final int UNITS_PER_DAY = 24 * 60 / UNIT_MINUTES;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private CounselorSettingsRepository settingsRepository;
+
+    // counselorId -> day -> occupied 15-minute units
+    private final Map<Long, Map<LocalDate, BitSet>> occupancy = new ConcurrentHashMap<>();
+
+    // counselorId -> generation, bumped on every occupancy eviction
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // counselorId -> working hours per weekday (absent = not working)
+    private final Map<Long, Map<DayOfWeek, LocalTime[]>> workingHours = new ConcurrentHashMap<>();
+
+    /**
+     * Slots for a counselor on a date as maps with "time" (HH:mm) and "available"
+     */
+    public List<Map<String, Object>> getSlots(User counselor, LocalDate date) {
+        BitSet occupied = getOccupancy(counselor, date, date).get(date);
+        List<Map<String, Object>> slots = new ArrayList<>();
+        for (LocalTime start : getSlotStarts(counselor.getId(), date)) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("time", start.format(TIME_FORMAT));
+            m.put("available", isFree(occupied, start));
+            slots.add(m);
+        }
+        return slots;
+    }
+
+    /**
+     * Free session start times for a counselor on a date
+     */
+    public List<LocalTime> getFreeSlotStarts(User counselor, LocalDate date) {
+        return getFreeSlotStarts(counselor.getId(), date, getOccupancy(counselor, date, date).get(date));
+    }
+
+    /**
+     * Occupancy bitmaps for a counselor for every day in [from, to], loading missing days in one query
+     */
+    public Map<LocalDate, BitSet> getOccupancy(User counselor, LocalDate from, LocalDate to) {
+        return getOccupancy(List.of(counselor), from, to).get(counselor.getId());
+    }
+
+    /**
+     * Occupancy bitmaps (counselorId -> day -> bitmap) for several counselors over [from, to].
+     * Days not yet cached are loaded for all counselors with a single query.
+     */
+    public Map<Long, Map<LocalDate, BitSet>> getOccupancy(List<User> counselors, LocalDate from, LocalDate to) {
+        List<User> missing = new ArrayList<>();
+        for (User counselor : counselors) {
+            Map<LocalDate, BitSet> days = occupancy.computeIfAbsent(counselor.getId(), k -> new ConcurrentHashMap<>());
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                if (!days.containsKey(d)) {
+                    missing.add(counselor);
+                    break;
+                }
+            }
+        }
+
+        Map<Long, Map<LocalDate, BitSet>> loaded = new HashMap<>();
+        if (!missing.isEmpty()) {
+            Map<Long, Long> loadGenerations = new HashMap<>();
+            for (User counselor : missing) {
+                loadGenerations.put(counselor.getId(), generation(counselor.getId()).get());
+                Map<LocalDate, BitSet> days = new HashMap<>();
+                for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                    days.put(d, new BitSet(UNITS_PER_DAY));
+                }
+                loaded.put(counselor.getId(), days);
+            }
+            for (Object[] row : appointmentRepository.findOccupiedTimesByCounselor(
+                    missing, from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                LocalDateTime start = (LocalDateTime) row[1];
+                markOccupied(loaded.get((Long) row[0]).get(start.toLocalDate()), start.toLocalTime());
+            }
+            loaded.forEach((counselorId, days) -> {
+                // An eviction during the load means a booking may be missing from these days; do not cache them
+                if (generation(counselorId).get() != loadGenerations.get(counselorId)) {
+                    return;
+                }
+                // Days cached meanwhile are kept; they are equally current
+                Map<LocalDate, BitSet> cached = occupancy.computeIfAbsent(counselorId, k -> new ConcurrentHashMap<>());
+                days.forEach(cached::putIfAbsent);
+            });
+        }
+
+        Map<Long, Map<LocalDate, BitSet>> result = new HashMap<>();
+        for (User counselor : counselors) {
+            Map<LocalDate, BitSet> cached = occupancy.get(counselor.getId());
+            Map<LocalDate, BitSet> fresh = loaded.getOrDefault(counselor.getId(), Map.of());
+            Map<LocalDate, BitSet> days = new HashMap<>();
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                // Prefer this call's load, which is at least as recent as anything cached
+                BitSet bits = fresh.get(d);
+                if (bits == null && cached != null) {
+                    bits = cached.get(d);
+                }
+                days.put(d, bits != null ? bits : new BitSet(UNITS_PER_DAY));
+            }
+            result.put(counselor.getId(), days);
+        }
+        return result;
+    }
+
+    /**
+     * Session start times for a counselor's working hours on a date (empty on days off)
+     */
+    public List<LocalTime> getSlotStarts(Long counselorId, LocalDate date) {
+        LocalTime[] hours = getWorkingHours(counselorId).get(date.getDayOfWeek());
+        List<LocalTime> starts = new ArrayList<>();
+        if (hours == null) {
+            return starts;
+        }
+        int startMinute = hours[0].toSecondOfDay() / 60;
+        int endMinute = hours[1].toSecondOfDay() / 60;
+        for (int m = startMinute; m + SESSION_MINUTES <= endMinute; m += SLOT_STEP_MINUTES) {
+            starts.add(LocalTime.of(m / 60, m % 60));
+        }
+        return starts;
+    }
+
+    /**
+     * Free session start times for a counselor given that day's occupancy bitmap
+     */
+    public List<LocalTime> getFreeSlotStarts(Long counselorId, LocalDate date, BitSet occupied) {
+        List<LocalTime> free = new ArrayList<>();
+        for (LocalTime start : getSlotStarts(counselorId, date)) {
+            if (isFree(occupied, start)) {
+                free.add(start);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Drop a counselor's cached day after an appointment on it changed
+     */
+    public void onAppointmentChanged(Long counselorId, LocalDate date) {
+        Runnable evict = () -> {
+            generation(counselorId).incrementAndGet();
+            Map<LocalDate, BitSet> days = occupancy.get(counselorId);
+            if (days != null && date != null) {
+                days.remove(date);
+            }
+        };
+        evict.run();
+        afterCommit(evict);
+    }
+
+    /**
+     * Drop every cached day of a counselor (e.g. after a reschedule whose old date is unknown)
+     */
+    public void onCounselorAppointmentsChanged(Long counselorId) {
+        Runnable evict = () -> {
+            generation(counselorId).incrementAndGet();
+            occupancy.remove(counselorId);
+        };
+        evict.run();
+        afterCommit(evict);
+    }
+
+    /**
+     * Whether a session starting at dateTime would overlap one of the counselor's non-rejected appointments,
+     * ignoring the appointment excludeAppointmentId (null for a new booking)
+     */
+    public boolean isSlotTaken(User counselor, LocalDateTime dateTime, Long excludeAppointmentId) {
+        // Read through to the database; the cached bitmap may predate a concurrent booking
+        return appointmentRepository.existsOccupyingBetween(counselor,
+                dateTime.minusMinutes(SESSION_MINUTES), dateTime.plusMinutes(SESSION_MINUTES),
+                excludeAppointmentId != null ? excludeAppointmentId : 0L);
+    }
+
+    /**
+     * Drop a counselor's cached working hours after their settings changed
+     */
+    public void onWorkingHoursChanged(Long counselorId) {
+        workingHours.remove(counselorId);
+    }
+
+    /**
+     * Drop cached days before the given date
+     */
+    public void pruneBefore(LocalDate date) {
+        occupancy.values().forEach(days -> days.keySet().removeIf(d -> d.isBefore(date)));
+    }
+
+    private AtomicLong generation(Long counselorId) {
+        return generations.computeIfAbsent(counselorId, k -> new AtomicLong());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private boolean isFree(BitSet occupied, LocalTime start) {
+        int from = start.toSecondOfDay() / 60 / UNIT_MINUTES;
+        int to = Math.min(UNITS_PER_DAY, from + (SESSION_MINUTES + UNIT_MINUTES - 1) / UNIT_MINUTES);
+        int next = occupied.nextSetBit(from);
+        return next < 0 || next >= to;
+    }
+
+    private void markOccupied(BitSet day, LocalTime start) {
+        if (day == null) {
+            return;
+        }
+        int from = start.toSecondOfDay() / 60 / UNIT_MINUTES;
+        int endMinute = start.toSecondOfDay() / 60 + SESSION_MINUTES;
+        int to = Math.min(UNITS_PER_DAY, (endMinute + UNIT_MINUTES - 1) / UNIT_MINUTES);
+        day.set(from, to);
+    }
+
+    private Map<DayOfWeek, LocalTime[]> getWorkingHours(Long counselorId) {
+        return workingHours.computeIfAbsent(counselorId, id -> {
+            // Read without creating settings; unsaved defaults apply when none exist
+            CounselorSettings settings = settingsRepository.findByCounselorId(id).orElseGet(CounselorSettings::new);
+            Map<DayOfWeek, LocalTime[]> hours = new EnumMap<>(DayOfWeek.class);
+            putHours(hours, DayOfWeek.MONDAY, settings.getMondayActive(), settings.getMondayStart(), settings.getMondayEnd());
+            putHours(hours, DayOfWeek.TUESDAY, settings.getTuesdayActive(), settings.getTuesdayStart(), settings.getTuesdayEnd());
+            putHours(hours, DayOfWeek.WEDNESDAY, settings.getWednesdayActive(), settings.getWednesdayStart(), settings.getWednesdayEnd());
+            putHours(hours, DayOfWeek.THURSDAY, settings.getThursdayActive(), settings.getThursdayStart(), settings.getThursdayEnd());
+            putHours(hours, DayOfWeek.FRIDAY, settings.getFridayActive(), settings.getFridayStart(), settings.getFridayEnd());
+            return hours;
+        });
+    }
+
+    private void putHours(Map<DayOfWeek, LocalTime[]> hours, DayOfWeek day, Boolean active, String start, String end) {
+        if (!Boolean.TRUE.equals(active) || start == null || end == null) {
+            return;
+        }
+        try {
+            LocalTime startTime = LocalTime.parse(start);
+            LocalTime endTime = LocalTime.parse(end);
+            if (startTime.isBefore(endTime)) {
+                hours.put(day, new LocalTime[]{startTime, endTime});
+            }
+        } catch (Exception e) {
+            // Unparseable hours leave the day unbookable
+        }
+    }
+}
@@ -15,6 +15,9 @@ public class CounselorSettingsService {
     @Autowired
     private CounselorSettingsRepository settingsRepository;
 
+    @Autowired
+    private CounselorAvailabilityService availabilityService;
+
     /**
      * Get existing settings for a counselor, or create new default settings if none
      * exist.
@@ -104,7 +107,9 @@ public class CounselorSettingsService {
         }
 
         settings.setUpdatedAt(LocalDateTime.now());
-        return settingsRepository.save(settings);
+        CounselorSettings saved = settingsRepository.save(settings);
+        availabilityService.onWorkingHoursChanged(counselor.getId());
+        return saved;
     }
 
     /**
@@ -133,6 +138,10 @@ public class CounselorSettingsService {
      */
     public CounselorSettings save(CounselorSettings settings) {
         settings.setUpdatedAt(LocalDateTime.now());
-        return settingsRepository.save(settings);
+        CounselorSettings saved = settingsRepository.save(settings);
+        if (saved.getCounselor() != null) {
+            availabilityService.onWorkingHoursChanged(saved.getCounselor().getId());
+        }
+        return saved;
     }
 }
@@ -0,0 +1,348 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.Feedback;
+import com.example.MentalMind.model.StressLevel;
+import com.example.MentalMind.repository.AppointmentRepository;
+import com.example.MentalMind.repository.FeedbackRepository;
+import com.example.MentalMind.repository.SelfAssessmentRepository;
+import com.example.MentalMind.repository.StudentActivitySnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory counters behind the counselor dashboard.
+ *
+ * The counters are seeded once from grouped queries and then kept current by the
+ * write paths in FeedbackService, SelfAssessmentService, MoodService and
+ * AppointmentService once their transactions commit, so dashboard reads never
+ * scan the underlying tables. A periodic reconcile rebuilds everything to
+ * absorb writes that bypass the services (e.g. DataInitializer).
+ */
+@Service
+public class DashboardAggregateService {
+
+    // Students with a mood entry in this many days count as active
+    public static final int ACTIVE_WINDOW_DAYS = 30;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private SelfAssessmentRepository assessmentRepository;
+
+    @Autowired
+    private StudentActivitySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private volatile boolean initialized = false;
+
+    // Bumped by every rebuild; a write hook whose commit straddles a rebuild forces the next read to rebuild
+    private final AtomicLong generation = new AtomicLong();
+
+    // "type:status" -> count
+    private final Map<String, AtomicLong> feedbackCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray assessmentBuckets = new AtomicLongArray(StressLevel.values().length);
+    private final AtomicLong assessmentTotal = new AtomicLong();
+
+    // studentId -> date of latest mood entry, plus how many students last logged on each date
+    private final Map<Long, LocalDate> lastMoodDateByStudent = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, AtomicLong> studentsByLastMoodDate = new ConcurrentSkipListMap<>();
+
+    // Today's appointments: counselorId -> status -> count; reloaded for the day when marked stale
+    private volatile LocalDate appointmentDay;
+    private volatile Map<Long, Map<String, Long>> todayAppointmentCounts = Map.of();
+
+    // Bumped on every appointment write; counts loaded across a bump are served once but not cached
+    private final AtomicLong appointmentGeneration = new AtomicLong();
+
+    /**
+     * Rebuild every counter from the database
+     */
+    public synchronized void rebuild() {
+        generation.incrementAndGet();
+        feedbackCounts.clear();
+        for (Object[] row : feedbackRepository.countGroupedByTypeAndStatus()) {
+            feedbackCounts.put(feedbackKey((String) row[0], (String) row[1]), new AtomicLong((Long) row[2]));
+        }
+
+        long total = 0;
+        for (int i = 0; i < assessmentBuckets.length(); i++) {
+            assessmentBuckets.set(i, 0);
+        }
+        for (Object[] row : assessmentRepository.countGroupedByScore()) {
+            long count = (Long) row[1];
+            assessmentBuckets.addAndGet(StressLevel.fromScore((Integer) row[0]).ordinal(), count);
+            total += count;
+        }
+        assessmentTotal.set(total);
+
+        lastMoodDateByStudent.clear();
+        studentsByLastMoodDate.clear();
+        for (Object[] row : snapshotRepository.findLastMoodTimes()) {
+            LocalDate date = ((LocalDateTime) row[1]).toLocalDate();
+            lastMoodDateByStudent.put((Long) row[0], date);
+            studentsByLastMoodDate.computeIfAbsent(date, d -> new AtomicLong()).incrementAndGet();
+        }
+
+        appointmentDay = null;
+        initialized = true;
+    }
+
+    /**
+     * Periodically reconcile counters with the database
+     */
+    @Scheduled(fixedDelay = 15, initialDelay = 15, timeUnit = TimeUnit.MINUTES)
+    public void reconcile() {
+        if (initialized) {
+            rebuild();
+        }
+    }
+
+    private void ensureInitialized() {
+        if (!initialized) {
+            rebuild();
+        }
+    }
+
+    // ===== Write hooks =====
+    // Counter changes are applied once the writer's transaction commits, so a rollback leaves them untouched
+
+    /**
+     * Count a newly submitted feedback
+     */
+    public void onFeedbackSubmitted(Feedback feedback) {
+        String type = feedback.getType();
+        String status = feedback.getStatus();
+        afterCommit(() -> adjustFeedback(type, status, 1));
+    }
+
+    /**
+     * Move a feedback between status counters
+     */
+    public void onFeedbackStatusChanged(String type, String oldStatus, String newStatus) {
+        if (Objects.equals(oldStatus, newStatus)) {
+            return;
+        }
+        afterCommit(() -> {
+            adjustFeedback(type, oldStatus, -1);
+            adjustFeedback(type, newStatus, 1);
+        });
+    }
+
+    /**
+     * Remove a deleted feedback from the counters
+     */
+    public void onFeedbackDeleted(Feedback feedback) {
+        String type = feedback.getType();
+        String status = feedback.getStatus();
+        afterCommit(() -> adjustFeedback(type, status, -1));
+    }
+
+    /**
+     * Count a newly saved self-assessment
+     */
+    public void onAssessmentSaved(int score) {
+        afterCommit(() -> {
+            assessmentBuckets.incrementAndGet(StressLevel.fromScore(score).ordinal());
+            assessmentTotal.incrementAndGet();
+        });
+    }
+
+    /**
+     * Record a mood entry for a student, moving them into today's activity bucket
+     */
+    public void onMoodLogged(Long studentId, LocalDateTime loggedAt) {
+        if (studentId == null || loggedAt == null) {
+            return;
+        }
+        LocalDate date = loggedAt.toLocalDate();
+        afterCommit(() -> {
+            LocalDate previous = lastMoodDateByStudent.get(studentId);
+            if (previous != null && !date.isAfter(previous)) {
+                return;
+            }
+            if (previous != null) {
+                AtomicLong bucket = studentsByLastMoodDate.get(previous);
+                if (bucket != null && bucket.decrementAndGet() <= 0) {
+                    studentsByLastMoodDate.remove(previous);
+                }
+            }
+            lastMoodDateByStudent.put(studentId, date);
+            studentsByLastMoodDate.computeIfAbsent(date, d -> new AtomicLong()).incrementAndGet();
+        });
+    }
+
+    /**
+     * Mark today's appointment counts stale after any appointment write, now and again after commit
+     */
+    public void onAppointmentChanged() {
+        invalidateAppointmentCounts();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAppointmentCounts();
+                }
+            });
+        }
+    }
+
+    private void invalidateAppointmentCounts() {
+        synchronized (appointmentGeneration) {
+            appointmentGeneration.incrementAndGet();
+            appointmentDay = null;
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        long seenGeneration = generation.get();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(seenGeneration, update);
+                }
+            });
+        } else {
+            apply(seenGeneration, update);
+        }
+    }
+
+    private synchronized void apply(long seenGeneration, Runnable update) {
+        if (!initialized) {
+            return;
+        }
+        // A rebuild since the write may already have counted it; rebuild again on the next read instead
+        if (generation.get() != seenGeneration) {
+            initialized = false;
+            return;
+        }
+        update.run();
+    }
+
+    private void adjustFeedback(String type, String status, long delta) {
+        AtomicLong counter = feedbackCounts.computeIfAbsent(feedbackKey(type, status), k -> new AtomicLong());
+        if (counter.addAndGet(delta) < 0) {
+            counter.set(0);
+        }
+    }
+
+    // ===== Reads =====
+
+    /**
+     * Count of feedback with the given type and status
+     */
+    public long getFeedbackCount(String type, String status) {
+        ensureInitialized();
+        AtomicLong counter = feedbackCounts.get(feedbackKey(type, status));
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Count of feedback with the given status across all types
+     */
+    public long getFeedbackCountByStatus(String status) {
+        ensureInitialized();
+        String suffix = ":" + status;
+        return feedbackCounts.entrySet().stream()
+                .filter(e -> e.getKey().endsWith(suffix))
+                .mapToLong(e -> e.getValue().get())
+                .sum();
+    }
+
+    /**
+     * Total feedback count
+     */
+    public long getFeedbackTotal() {
+        ensureInitialized();
+        return feedbackCounts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * Assessment counts per stress level, indexed by StressLevel ordinal
+     */
+    public long[] getAssessmentBuckets() {
+        ensureInitialized();
+        long[] buckets = new long[assessmentBuckets.length()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = assessmentBuckets.get(i);
+        }
+        return buckets;
+    }
+
+    /**
+     * Total assessment count
+     */
+    public long getAssessmentTotal() {
+        ensureInitialized();
+        return assessmentTotal.get();
+    }
+
+    /**
+     * Number of students with a mood entry in the last ACTIVE_WINDOW_DAYS days
+     */
+    public long getActiveStudentCount() {
+        ensureInitialized();
+        LocalDate cutoff = LocalDate.now().minusDays(ACTIVE_WINDOW_DAYS);
+        return studentsByLastMoodDate.tailMap(cutoff, false).values().stream()
+                .mapToLong(AtomicLong::get)
+                .sum();
+    }
+
+    /**
+     * Today's appointment counts by status, for one counselor or all counselors when null
+     */
+    public Map<String, Long> getTodayAppointmentCounts(Long counselorId) {
+        Map<Long, Map<String, Long>> counts = loadTodayAppointmentCounts();
+        if (counselorId != null) {
+            return counts.getOrDefault(counselorId, Map.of());
+        }
+        Map<String, Long> merged = new HashMap<>();
+        counts.values().forEach(byStatus -> byStatus.forEach((status, n) -> merged.merge(status, n, Long::sum)));
+        return merged;
+    }
+
+    private Map<Long, Map<String, Long>> loadTodayAppointmentCounts() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(appointmentDay)) {
+            return todayAppointmentCounts;
+        }
+        long loadGeneration = appointmentGeneration.get();
+        Map<Long, Map<String, Long>> counts = new HashMap<>();
+        for (Object[] row : appointmentRepository.countByCounselorAndStatusBetween(
+                today.atStartOfDay(), today.atTime(LocalTime.MAX))) {
+            String status = ((String) row[1]).toUpperCase(Locale.ROOT);
+            counts.computeIfAbsent((Long) row[0], k -> new HashMap<>()).merge(status, (Long) row[2], Long::sum);
+        }
+        synchronized (appointmentGeneration) {
+            if (appointmentGeneration.get() == loadGeneration) {
+                todayAppointmentCounts = counts;
+                appointmentDay = today;
+            }
+        }
+        return counts;
+    }
+
+    private String feedbackKey(String type, String status) {
+        return type + ":" + status;
+    }
+}
@@ -3,23 +3,22 @@ package com.example.MentalMind.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 
-import com.example.MentalMind.model.Appointment;
-import com.example.MentalMind.model.Feedback;
+import com.example.MentalMind.dto.FeedbackStatsRow;
 import com.example.MentalMind.model.SelfAssessmentResult;
-import com.example.MentalMind.model.MoodEntry;
+import com.example.MentalMind.model.MoodRollup;
+import com.example.MentalMind.model.StressLevel;
+import com.example.MentalMind.model.StudentActivitySnapshot;
 import com.example.MentalMind.model.User;
 import com.example.MentalMind.repository.AppointmentRepository;
 import com.example.MentalMind.repository.FeedbackRepository;
 import com.example.MentalMind.repository.SelfAssessmentRepository;
-import com.example.MentalMind.repository.MoodEntryRepository;
 import com.example.MentalMind.repository.UserRepository;
 import com.example.MentalMind.repository.CounselorResponseRepository;
+import com.example.MentalMind.repository.StudentActivitySnapshotRepository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -32,9 +31,6 @@ public class DashboardService {
     @Autowired
     private SelfAssessmentRepository assessmentRepository;
 
-    @Autowired
-    private MoodEntryRepository moodEntryRepository;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -44,39 +40,28 @@ public class DashboardService {
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private StudentActivitySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private DashboardAggregateService aggregateService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    private static final String[] FEEDBACK_TYPES = {"feedback", "bug", "suggestion"};
+
+    // Weeks of weekly averages attached to each mood trend
+    private static final int TREND_WEEKS = 8;
+
     // Feature 1: Today's Appointments Count & Details
     public Map<String, Object> getTodayAppointmentsStats(Long counselorId) {
         Map<String, Object> stats = new HashMap<>();
 
-        LocalDate today = LocalDate.now();
-        LocalDateTime start = today.atStartOfDay();
-        LocalDateTime end = today.atTime(LocalTime.MAX);
-
-        List<Appointment> appointments;
-        if (counselorId != null) {
-            Optional<User> counselor = userRepository.findById(counselorId);
-            if (counselor.isEmpty()) {
-                stats.put("todayAppointments", 0);
-                stats.put("pendingAppointments", 0);
-                stats.put("completedAppointments", 0);
-                return stats;
-            }
-            appointments = appointmentRepository.findByCounselorOrderByAppointmentDateTimeAsc(counselor.get());
-        } else {
-            appointments = appointmentRepository.findAll();
-        }
-
-        List<Appointment> todayApts = appointments.stream()
-            .filter(a -> !a.getAppointmentDateTime().isBefore(start) && !a.getAppointmentDateTime().isAfter(end))
-            .collect(Collectors.toList());
-
-        long todayAppointments = todayApts.size();
-        long pendingAppointments = todayApts.stream()
-            .filter(a -> "PENDING".equalsIgnoreCase(a.getStatus()))
-            .count();
-        long completedAppointments = todayApts.stream()
-            .filter(a -> "COMPLETED".equalsIgnoreCase(a.getStatus()))
-            .count();
+        Map<String, Long> todayCounts = aggregateService.getTodayAppointmentCounts(counselorId);
+        long todayAppointments = todayCounts.values().stream().mapToLong(Long::longValue).sum();
+        long pendingAppointments = todayCounts.getOrDefault("PENDING", 0L);
+        long completedAppointments = todayCounts.getOrDefault("COMPLETED", 0L);
 
         stats.put("todayAppointments", todayAppointments);
         stats.put("pendingAppointments", pendingAppointments);
@@ -89,9 +74,9 @@ public class DashboardService {
     public Map<String, Object> getPendingRequestsStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        long pendingFeedback = feedbackRepository.findByTypeAndStatus("feedback", "pending").size();
-        long pendingBugs = feedbackRepository.findByTypeAndStatus("bug", "pending").size();
-        long pendingSuggestions = feedbackRepository.findByTypeAndStatus("suggestion", "pending").size();
+        long pendingFeedback = aggregateService.getFeedbackCount("feedback", "pending");
+        long pendingBugs = aggregateService.getFeedbackCount("bug", "pending");
+        long pendingSuggestions = aggregateService.getFeedbackCount("suggestion", "pending");
         long totalPending = pendingFeedback + pendingBugs + pendingSuggestions;
         
         stats.put("totalPending", totalPending);
@@ -105,36 +90,22 @@ public class DashboardService {
 
     // Feature 3: Flagged Students (High-Risk) - Get top 5
     public List<Map<String, Object>> getFlaggedStudents() {
-        Map<Long, SelfAssessmentResult> latestHighRiskByUser = new HashMap<>();
-
-        assessmentRepository.findAll().stream()
-            .filter(a -> "HIGH".equalsIgnoreCase(a.getStressLevel()))
-            .filter(a -> a.getUser() != null && "student".equalsIgnoreCase(a.getUser().getRole()))
-            .forEach(a -> {
-                Long userId = a.getUser().getId();
-                SelfAssessmentResult current = latestHighRiskByUser.get(userId);
-                if (current == null || a.getCompletedAt().isAfter(current.getCompletedAt())) {
-                    latestHighRiskByUser.put(userId, a);
-                }
-            });
-
-        return latestHighRiskByUser.values().stream()
-            .sorted((a, b) -> b.getScore().compareTo(a.getScore()))
-            .map(assessment -> {
+        // Students whose latest assessment is HIGH, read from the activity snapshot
+        return snapshotRepository.findHighRisk(PageRequest.of(0, 5)).stream()
+            .map(snapshot -> {
                 Map<String, Object> student = new HashMap<>();
-                User user = assessment.getUser();
+                User user = snapshot.getStudent();
 
                 student.put("id", user.getId());
                 student.put("name", user.getFullName());
                 student.put("email", user.getEmail());
-                student.put("riskLevel", assessment.getStressLevel());
-                student.put("score", assessment.getScore());
-                student.put("assessmentDate", assessment.getCompletedAt());
-
-                List<MoodEntry> moods = moodEntryRepository.findByUserId(user.getId());
-                if (!moods.isEmpty()) {
-                    student.put("latestMoodScore", moods.get(0).getMoodScore());
-                    student.put("moodDate", moods.get(0).getCreatedAt());
+                student.put("riskLevel", snapshot.getLastStressLevel());
+                student.put("score", snapshot.getLastAssessmentScore());
+                student.put("assessmentDate", snapshot.getLastAssessmentAt());
+
+                if (snapshot.getLastMoodAt() != null) {
+                    student.put("latestMoodScore", snapshot.getLastMoodScore());
+                    student.put("moodDate", snapshot.getLastMoodAt());
                 }
 
                 return student;
@@ -146,35 +117,21 @@ public class DashboardService {
     public Map<String, Object> getActiveStudentsStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        List<User> allStudents = userRepository.findAll().stream()
-            .filter(u -> "student".equalsIgnoreCase(u.getRole()))
-            .collect(Collectors.toList());
+        long totalStudents = userRepository.countByRole("student");
         
-        // Active = has activity in last 30 days
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        long activeStudents = allStudents.stream()
-            .filter(u -> {
-                List<MoodEntry> recentMoods = moodEntryRepository.findByUserId(u.getId()).stream()
-                    .filter(m -> m.getCreatedAt().isAfter(thirtyDaysAgo))
-                    .collect(Collectors.toList());
-                return !recentMoods.isEmpty();
-            })
-            .count();
+        // Active = has a mood entry in the last 30 days
+        long activeStudents = Math.min(aggregateService.getActiveStudentCount(), totalStudents);
         
-        stats.put("totalStudents", allStudents.size());
+        stats.put("totalStudents", totalStudents);
         stats.put("activeStudents", activeStudents);
-        stats.put("inactiveStudents", allStudents.size() - activeStudents);
+        stats.put("inactiveStudents", totalStudents - activeStudents);
         
         return stats;
     }
 
     // Feature 5: Recent Student Assessments - Top 10
     public List<Map<String, Object>> getRecentAssessments() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<SelfAssessmentResult> recentAssessments = assessmentRepository.findAll().stream()
-            .sorted((a, b) -> b.getCompletedAt().compareTo(a.getCompletedAt()))
-            .limit(10)
-            .collect(Collectors.toList());
+        List<SelfAssessmentResult> recentAssessments = assessmentRepository.findRecentWithUser(PageRequest.of(0, 10));
         
         return recentAssessments.stream()
             .map(assessment -> {
@@ -198,23 +155,21 @@ public class DashboardService {
 
     // Feature 6: Counselor Statistics
     public Map<String, Object> getCounselorStats() {
+        return getCounselorStats(loadFeedbackStats());
+    }
+
+    private Map<String, Object> getCounselorStats(List<FeedbackStatsRow> feedbackStats) {
         Map<String, Object> stats = new HashMap<>();
         
-        LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
-        
         // Session count this month (using feedback as proxy)
-        long sessionsThisMonth = feedbackRepository.findAll().stream()
-            .filter(f -> f.getCreatedAt().isAfter(monthStart))
-            .count();
+        long sessionsThisMonth = feedbackStats.stream().mapToLong(FeedbackStatsRow::getThisMonth).sum();
         
         // Total responses sent
         long totalResponses = responseRepository.count();
         
         // Feedback resolution rate
-        long totalFeedback = feedbackRepository.findAll().size();
-        long resolvedFeedback = feedbackRepository.findByTypeAndStatus("feedback", "resolved").size()
-            + feedbackRepository.findByTypeAndStatus("bug", "resolved").size()
-            + feedbackRepository.findByTypeAndStatus("suggestion", "resolved").size();
+        long totalFeedback = aggregateService.getFeedbackTotal();
+        long resolvedFeedback = sumFeedbackTypes("resolved");
         
         double resolutionRate = totalFeedback > 0 ? (double) resolvedFeedback / totalFeedback * 100 : 0;
         
@@ -229,30 +184,21 @@ public class DashboardService {
 
     // Feature 7: Quick Stats Dashboard - Summary
     public Map<String, Object> getQuickStats() {
+        return getQuickStats(loadFeedbackStats());
+    }
+
+    private Map<String, Object> getQuickStats(List<FeedbackStatsRow> feedbackStats) {
         Map<String, Object> stats = new HashMap<>();
         
         // Total feedback
-        long totalFeedback = feedbackRepository.findAll().size();
-        long pendingFeedback = feedbackRepository.findByTypeAndStatus("feedback", "pending").size()
-            + feedbackRepository.findByTypeAndStatus("bug", "pending").size()
-            + feedbackRepository.findByTypeAndStatus("suggestion", "pending").size();
-        long reviewedFeedback = feedbackRepository.findByTypeAndStatus("feedback", "reviewed").size()
-            + feedbackRepository.findByTypeAndStatus("bug", "reviewed").size()
-            + feedbackRepository.findByTypeAndStatus("suggestion", "reviewed").size();
-        long resolvedFeedback = feedbackRepository.findByTypeAndStatus("feedback", "resolved").size()
-            + feedbackRepository.findByTypeAndStatus("bug", "resolved").size()
-            + feedbackRepository.findByTypeAndStatus("suggestion", "resolved").size();
+        long totalFeedback = aggregateService.getFeedbackTotal();
+        long pendingFeedback = sumFeedbackTypes("pending");
+        long reviewedFeedback = sumFeedbackTypes("reviewed");
+        long resolvedFeedback = sumFeedbackTypes("resolved");
         
         // Trend: This week vs last week
-        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-        LocalDateTime twoWeeksAgo = LocalDateTime.now().minusDays(14);
-        
-        long thisWeekFeedback = feedbackRepository.findAll().stream()
-            .filter(f -> f.getCreatedAt().isAfter(weekAgo))
-            .count();
-        long lastWeekFeedback = feedbackRepository.findAll().stream()
-            .filter(f -> f.getCreatedAt().isAfter(twoWeeksAgo) && f.getCreatedAt().isBefore(weekAgo))
-            .count();
+        long thisWeekFeedback = feedbackStats.stream().mapToLong(FeedbackStatsRow::getThisWeek).sum();
+        long lastWeekFeedback = feedbackStats.stream().mapToLong(FeedbackStatsRow::getLastWeek).sum();
         
         stats.put("totalFeedback", totalFeedback);
         stats.put("pendingFeedback", pendingFeedback);
@@ -272,40 +218,55 @@ public class DashboardService {
     public List<Map<String, Object>> getMoodTrends() {
         List<Map<String, Object>> trends = new ArrayList<>();
         
-        // Get all students with mood entries
-        List<User> students = userRepository.findAll().stream()
-            .filter(u -> "student".equalsIgnoreCase(u.getRole()))
-            .collect(Collectors.toList());
-        
-        for (User student : students) {
-            List<MoodEntry> moods = moodEntryRepository.findByUserId(student.getId()).stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .limit(7) // Last 7 moods
-                .collect(Collectors.toList());
-            
-            if (moods.size() >= 2) {
-                int latestMood = moods.get(0).getMoodScore();
-                int previousMood = moods.get(1).getMoodScore();
-                
-                // Flag if declining trend (drop of 2+ points)
-                if (latestMood < previousMood - 1 && latestMood <= 3) {
-                    Map<String, Object> trend = new HashMap<>();
-                    trend.put("studentId", student.getId());
-                    trend.put("studentName", student.getFullName());
-                    trend.put("latestMood", latestMood);
-                    trend.put("previousMood", previousMood);
-                    trend.put("moodChange", latestMood - previousMood);
-                    trend.put("lastUpdated", moods.get(0).getCreatedAt());
-                    trend.put("concern", "Declining mood - may need support");
-                    
-                    trends.add(trend);
-                }
-            }
+        // Declining trend (drop of 2+ points to 3 or below), filtered and limited in the database
+        List<StudentActivitySnapshot> declining = snapshotRepository.findDecliningMoods(PageRequest.of(0, 10));
+
+        // Weekly averages for the flagged students, read from the mood rollups in one query
+        LocalDate weekEnd = MoodRollup.bucketStart(MoodRollup.WEEK, LocalDate.now()).plusWeeks(1);
+        Map<Long, List<MoodRollup>> weekly = moodRollupService.getStudentSeries(
+                declining.stream().map(s -> s.getStudent().getId()).toList(),
+                MoodRollup.WEEK, weekEnd.minusWeeks(TREND_WEEKS), weekEnd);
+
+        for (StudentActivitySnapshot snapshot : declining) {
+            User student = snapshot.getStudent();
+            int latestMood = snapshot.getLastMoodScore();
+            int previousMood = snapshot.getPreviousMoodScore();
+
+            Map<String, Object> trend = new HashMap<>();
+            trend.put("studentId", student.getId());
+            trend.put("studentName", student.getFullName());
+            trend.put("latestMood", latestMood);
+            trend.put("previousMood", previousMood);
+            trend.put("moodChange", latestMood - previousMood);
+            trend.put("lastUpdated", snapshot.getLastMoodAt());
+            trend.put("concern", "Declining mood - may need support");
+            trend.put("weeklyAverages", toTrendPoints(weekly.getOrDefault(student.getId(), List.of())));
+
+            trends.add(trend);
         }
         
-        return trends.stream()
-            .limit(10)
-            .collect(Collectors.toList());
+        return trends;
+    }
+
+    // Campus-wide mood trend over the last N days or weeks, one point per bucket with entries
+    public List<Map<String, Object>> getCampusMoodTrend(String granularity, int periods) {
+        int days = MoodRollup.bucketDays(granularity);
+        LocalDate end = MoodRollup.bucketStart(granularity, LocalDate.now()).plusDays(days);
+        return toTrendPoints(moodRollupService.getCampusSeries(granularity, end.minusDays((long) days * periods), end));
+    }
+
+    private List<Map<String, Object>> toTrendPoints(List<MoodRollup> rollups) {
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (MoodRollup rollup : rollups) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("bucketStart", rollup.getBucketStart());
+            point.put("entries", rollup.getEntryCount());
+            point.put("average", rollup.getAverage());
+            point.put("min", rollup.getScoreMin());
+            point.put("max", rollup.getScoreMax());
+            points.add(point);
+        }
+        return points;
     }
 
     // Feature 9: Appointments This Week (using feedback as placeholder)
@@ -321,11 +282,10 @@ public class DashboardService {
 
         LocalDate today = LocalDate.now();
         LocalDateTime windowStart = today.atStartOfDay();
-        LocalDateTime windowEnd = today.plusDays(7).atTime(LocalTime.MAX);
+        LocalDateTime windowEnd = today.plusDays(8).atStartOfDay();
 
-        return appointmentRepository.findByCounselorOrderByAppointmentDateTimeAsc(counselor.get()).stream()
-            .filter(a -> !a.getAppointmentDateTime().isBefore(windowStart) && !a.getAppointmentDateTime().isAfter(windowEnd))
-            .filter(a -> "APPROVED".equalsIgnoreCase(a.getStatus()) || "PENDING".equalsIgnoreCase(a.getStatus()))
+        return appointmentRepository.findCounselorAppointmentsBetweenWithStatus(
+                counselor.get(), windowStart, windowEnd, List.of("APPROVED", "PENDING")).stream()
             .map(apt -> {
                 Map<String, Object> data = new HashMap<>();
                 data.put("id", apt.getId());
@@ -341,29 +301,36 @@ public class DashboardService {
     }
 
     public Map<String, Object> getTotalStudents() {
-        long total = userRepository.findByRole("student").size();
+        long total = userRepository.countByRole("student");
         return Map.of("totalStudents", total);
     }
 
     public Map<String, Object> getAssessmentsTaken() {
-        long total = assessmentRepository.count();
+        long total = aggregateService.getAssessmentTotal();
         return Map.of("totalAssessments", total);
     }
 
     public Map<String, Object> getAssessmentDistribution() {
-        List<SelfAssessmentResult> results = assessmentRepository.findAll();
-        long low = results.stream().filter(r -> r.getScore() <= 5).count();
-        long moderate = results.stream().filter(r -> r.getScore() >= 6 && r.getScore() <= 10).count();
-        long high = results.stream().filter(r -> r.getScore() >= 11 && r.getScore() <= 15).count();
-        long severe = results.stream().filter(r -> r.getScore() >= 16).count();
-        long total = results.size();
+        long[] buckets = aggregateService.getAssessmentBuckets();
+
+        // One entry per PSS-10 stress band, with the band's score range for labels
+        List<Map<String, Object>> levels = new ArrayList<>();
+        for (StressLevel level : StressLevel.values()) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("level", level.name());
+            m.put("label", level.getDisplayName());
+            m.put("minScore", level.getMinScore());
+            m.put("maxScore", level.getMaxScore());
+            m.put("count", buckets[level.ordinal()]);
+            levels.add(m);
+        }
 
         Map<String, Object> distribution = new HashMap<>();
-        distribution.put("lowRisk", low);
-        distribution.put("moderateRisk", moderate);
-        distribution.put("highRisk", high);
-        distribution.put("severeRisk", severe);
-        distribution.put("totalAssessments", total);
+        distribution.put("lowRisk", buckets[StressLevel.LOW.ordinal()]);
+        distribution.put("moderateRisk", buckets[StressLevel.MODERATE.ordinal()]);
+        distribution.put("highRisk", buckets[StressLevel.HIGH.ordinal()]);
+        distribution.put("stressLevels", levels);
+        distribution.put("totalAssessments", aggregateService.getAssessmentTotal());
         return distribution;
     }
 
@@ -371,47 +338,52 @@ public class DashboardService {
     public Map<String, Object> getPerformanceMetrics() {
         Map<String, Object> metrics = new HashMap<>();
         
-        List<User> allStudents = userRepository.findAll().stream()
-            .filter(u -> "student".equalsIgnoreCase(u.getRole()))
-            .collect(Collectors.toList());
+        long totalStudents = userRepository.countByRole("student");
         
-        // Students with feedback/responses
-        Set<Long> studentsHelped = new HashSet<>();
-        feedbackRepository.findAll().forEach(f -> studentsHelped.add(f.getUser().getId()));
-        responseRepository.findAll().forEach(r -> studentsHelped.add(r.getFeedback().getUser().getId()));
+        // Students with feedback/responses (every response belongs to a feedback, so its author is already counted)
+        long studentsHelped = feedbackRepository.countDistinctUsers();
         
         // Average response time (using feedback creation as reference)
-        List<Feedback> allFeedback = feedbackRepository.findAll();
-        long totalResponseTime = 0;
-        int responsedCount = 0;
-        
-        for (Feedback feedback : allFeedback) {
-            if ("reviewed".equalsIgnoreCase(feedback.getStatus()) || 
-                "resolved".equalsIgnoreCase(feedback.getStatus())) {
-                responsedCount++;
-            }
-        }
+        long totalFeedback = aggregateService.getFeedbackTotal();
+        long resolvedCount = aggregateService.getFeedbackCountByStatus("resolved");
+        long responsedCount = aggregateService.getFeedbackCountByStatus("reviewed") + resolvedCount;
         
         long avgResponseTime = responsedCount > 0 ? 24 : 0; // Placeholder: 24 hours
         
         // Resolution rate
-        long resolvedCount = allFeedback.stream()
-            .filter(f -> "resolved".equalsIgnoreCase(f.getStatus()))
-            .count();
-        double resolutionRate = allFeedback.size() > 0 ? 
-            (double) resolvedCount / allFeedback.size() * 100 : 0;
+        double resolutionRate = totalFeedback > 0 ? 
+            (double) resolvedCount / totalFeedback * 100 : 0;
         
-        metrics.put("studentsHelped", studentsHelped.size());
-        metrics.put("totalStudents", allStudents.size());
-        metrics.put("helpRate", String.format("%.1f", (double) studentsHelped.size() / allStudents.size() * 100) + "%");
+        metrics.put("studentsHelped", studentsHelped);
+        metrics.put("totalStudents", totalStudents);
+        metrics.put("helpRate", String.format("%.1f", (double) studentsHelped / totalStudents * 100) + "%");
         metrics.put("feedbackResolutionRate", String.format("%.1f", resolutionRate) + "%");
         metrics.put("avgResponseTimeHours", avgResponseTime);
-        metrics.put("totalFeedbackHandled", allFeedback.size());
+        metrics.put("totalFeedbackHandled", totalFeedback);
         metrics.put("totalResponsesSent", responseRepository.count());
         
         return metrics;
     }
 
+    // Load the feedback type x status matrix for the this-week / last-week / this-month windows
+    private List<FeedbackStatsRow> loadFeedbackStats() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime weekStart = now.minusDays(7);
+        LocalDateTime lastWeekStart = now.minusDays(14);
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime since = lastWeekStart.isBefore(monthStart) ? lastWeekStart : monthStart;
+        return feedbackRepository.getStatsMatrix(since, weekStart, lastWeekStart, monthStart);
+    }
+
+    // Sum the counters for one status across the known feedback types
+    private long sumFeedbackTypes(String status) {
+        long total = 0;
+        for (String type : FEEDBACK_TYPES) {
+            total += aggregateService.getFeedbackCount(type, status);
+        }
+        return total;
+    }
+
     // Helper method to determine risk color
     private String getRiskColor(String stressLevel) {
         return switch (stressLevel.toUpperCase()) {
@@ -425,14 +397,16 @@ public class DashboardService {
     // Comprehensive dashboard data - all features combined
     public Map<String, Object> getCompleteDashboardData() {
         Map<String, Object> dashboardData = new HashMap<>();
+        // One feedback matrix query shared by the counselor and quick stats
+        List<FeedbackStatsRow> feedbackStats = loadFeedbackStats();
         
         dashboardData.put("appointments", getTodayAppointmentsStats(null));
         dashboardData.put("pendingRequests", getPendingRequestsStats());
         dashboardData.put("flaggedStudents", getFlaggedStudents());
         dashboardData.put("activeStudents", getActiveStudentsStats());
         dashboardData.put("recentAssessments", getRecentAssessments());
-        dashboardData.put("counselorStats", getCounselorStats());
-        dashboardData.put("quickStats", getQuickStats());
+        dashboardData.put("counselorStats", getCounselorStats(feedbackStats));
+        dashboardData.put("quickStats", getQuickStats(feedbackStats));
         dashboardData.put("moodTrends", getMoodTrends());
         dashboardData.put("upcomingAppointments", getUpcomingAppointments(null));
         dashboardData.put("performanceMetrics", getPerformanceMetrics());
@@ -15,12 +15,17 @@ public class FeedbackService {
     @Autowired
     private FeedbackRepository feedbackRepository;
 
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
     /**
      * Submit feedback from a user
      */
     public Feedback submitFeedback(User user, String type, String subject, String details) {
         Feedback feedback = new Feedback(user, type, subject, details);
-        return feedbackRepository.save(feedback);
+        Feedback saved = feedbackRepository.save(feedback);
+        dashboardAggregateService.onFeedbackSubmitted(saved);
+        return saved;
     }
 
     /**
@@ -52,8 +57,11 @@ public class FeedbackService {
         Optional<Feedback> feedback = feedbackRepository.findById(id);
         if (feedback.isPresent()) {
             Feedback f = feedback.get();
+            String oldStatus = f.getStatus();
             f.setStatus(status);
-            return feedbackRepository.save(f);
+            Feedback saved = feedbackRepository.save(f);
+            dashboardAggregateService.onFeedbackStatusChanged(saved.getType(), oldStatus, status);
+            return saved;
         }
         return null;
     }
@@ -69,7 +77,10 @@ public class FeedbackService {
      * Delete feedback
      */
     public void deleteFeedback(Long id) {
-        feedbackRepository.deleteById(id);
+        feedbackRepository.findById(id).ifPresent(f -> {
+            feedbackRepository.delete(f);
+            dashboardAggregateService.onFeedbackDeleted(f);
+        });
     }
 
     /**
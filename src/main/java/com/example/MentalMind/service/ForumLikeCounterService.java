@@ -0,0 +1,103 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.repository.ForumPostRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces forum like/unlike deltas in memory and flushes them to
+ * forum_posts.like_count with one relative UPDATE per post per flush.
+ *
+ * Deltas live in a ConcurrentHashMap whose per-bin locking keeps writers on
+ * different posts from contending. A flush atomically removes each post's
+ * pending delta, so likes recorded while flushing start a new delta and are
+ * never lost; a failed UPDATE puts its delta back for the next flush.
+ */
+@Service
+public class ForumLikeCounterService {
+
+    @Autowired
+    private ForumPostRepository forumPostRepository;
+
+    // postId -> likes not yet written to the post row
+    private final Map<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * Record a like (+1) or unlike (-1) for a post. Inside a transaction the delta is
+     * only queued once it commits, so a rolled-back like never reaches like_count.
+     */
+    public void record(Long postId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addPending(postId, delta);
+                }
+            });
+        } else {
+            addPending(postId, delta);
+        }
+    }
+
+    private void addPending(Long postId, long delta) {
+        pendingDeltas.merge(postId, delta, (a, b) -> {
+            long sum = a + b;
+            return sum == 0 ? null : sum;
+        });
+    }
+
+    /**
+     * Likes recorded for a post that are not yet in its like_count column
+     */
+    public long getPending(Long postId) {
+        return pendingDeltas.getOrDefault(postId, 0L);
+    }
+
+    /**
+     * Drop a post's pending delta (e.g. after the post was deleted)
+     */
+    public void discard(Long postId) {
+        pendingDeltas.remove(postId);
+    }
+
+    /**
+     * Write all pending deltas to the post rows
+     */
+    @Scheduled(fixedDelay = 5, initialDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public void flush() {
+        List<Long> postIds = new ArrayList<>(pendingDeltas.keySet());
+        for (Long postId : postIds) {
+            Long delta = pendingDeltas.remove(postId);
+            if (delta == null || delta == 0) {
+                continue;
+            }
+            try {
+                forumPostRepository.addToLikeCount(postId, delta.intValue());
+            } catch (Exception e) {
+                // Keep the delta for the next flush
+                addPending(postId, delta);
+            }
+        }
+    }
+
+    /**
+     * Write remaining deltas before the application stops
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
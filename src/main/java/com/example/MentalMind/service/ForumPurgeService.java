@@ -0,0 +1,89 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.repository.ForumCommentRepository;
+import com.example.MentalMind.repository.ForumPostFlagRepository;
+import com.example.MentalMind.repository.ForumPostLikeRepository;
+import com.example.MentalMind.repository.ForumPostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Set-based deletion of forum content.
+ *
+ * Posts are removed together with their likes, comments and flags using bulk
+ * DELETE statements (one per table per batch of ids) inside a single
+ * transaction, instead of loading and deleting child rows one at a time.
+ * Each purge returns a PurgeReport with the number of rows removed per table.
+ */
+@Service
+public class ForumPurgeService {
+
+    // Post ids per IN-list when purging large selections
+    private static final int PURGE_BATCH_SIZE = 500;
+
+    @Autowired
+    private ForumPostRepository forumPostRepository;
+
+    @Autowired
+    private ForumCommentRepository forumCommentRepository;
+
+    @Autowired
+    private ForumPostLikeRepository forumPostLikeRepository;
+
+    @Autowired
+    private ForumPostFlagRepository forumPostFlagRepository;
+
+    @Autowired
+    private ForumLikeCounterService forumLikeCounterService;
+
+    @Autowired
+    private ForumSearchService forumSearchService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
+    /**
+     * Delete the given posts and everything attached to them
+     */
+    @Transactional
+    public PurgeReport purgePosts(Collection<Long> postIds) {
+        PurgeReport report = new PurgeReport();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(postIds));
+        for (int from = 0; from < ids.size(); from += PURGE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + PURGE_BATCH_SIZE));
+            report.likes += forumPostLikeRepository.deleteByPostIds(batch);
+            report.comments += forumCommentRepository.deleteByPostIds(batch);
+            report.flags += forumPostFlagRepository.deleteByPostIds(batch);
+            report.posts += forumPostRepository.deleteByIds(batch);
+        }
+        for (Long postId : ids) {
+            forumLikeCounterService.discard(postId);
+            forumSearchService.onPostDeleted(postId);
+        }
+        moderationQueueService.invalidateCounts();
+        return report;
+    }
+
+    public static class PurgeReport {
+        private int posts;
+        private int comments;
+        private int likes;
+        private int flags;
+
+        public int getPosts() { return posts; }
+        public int getComments() { return comments; }
+        public int getLikes() { return likes; }
+        public int getFlags() { return flags; }
+
+        @Override
+        public String toString() {
+            return posts + " post(s), " + comments + " comment(s), " + likes + " like(s), " + flags + " flag(s)";
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.ForumPost;
+import com.example.MentalMind.repository.ForumCommentRepository;
+import com.example.MentalMind.repository.ForumPostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process inverted index over forum posts and their comments, ranked with BM25.
+ *
+ * Each post is one document made of its title (counted twice, as a boost),
+ * its content and the content of its comments. Terms are lowercased,
+ * stop words dropped and suffixes stripped by a light English stemmer so
+ * "anxious exams" and "exam anxiety" share the "exam" term. The index is
+ * built on first use and then kept current by ForumService's write paths
+ * once their transactions commit; a periodic rebuild absorbs writes that
+ * bypass the service. Rebuilds load a fresh index without holding the lock
+ * searches use and publish it with a single swap.
+ */
+@Service
+public class ForumSearchService {
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE_BOOST = 2;
+    private static final int MIN_TERM_LENGTH = 2;
+
+    static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have",
+            "i", "if", "in", "into", "is", "it", "its", "me", "my", "of", "on", "or", "so", "that",
+            "the", "their", "there", "this", "to", "was", "we", "were", "what", "when", "with", "you", "your");
+
+    @Autowired
+    private ForumPostRepository forumPostRepository;
+
+    @Autowired
+    private ForumCommentRepository forumCommentRepository;
+
+    // Searches share the read lock; hook updates and the swap to a rebuilt index take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serializes rebuilds, which load from the database without holding the index lock
+    private final Object rebuildMonitor = new Object();
+
+    // Index in use, null until first built
+    private volatile Index index;
+
+    // Hook updates applied while a rebuild is loading, replayed onto the new index before it is published.
+    // A replayed comment the load already read is counted twice until the next rebuild.
+    private List<Consumer<Index>> updatesDuringRebuild;
+
+    /**
+     * Rebuild the whole index from the database; searches keep using the old index until the swap
+     */
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index fresh = null;
+            try {
+                Map<Long, List<String>> commentsByPost = new HashMap<>();
+                for (Object[] row : forumCommentRepository.findAllPostIdAndContent()) {
+                    commentsByPost.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+                }
+                fresh = buildIndex(forumPostRepository.findAll(), commentsByPost);
+            } finally {
+                publish(fresh);
+            }
+        }
+    }
+
+    /**
+     * Periodically rebuild the index from the database
+     */
+    @Scheduled(fixedDelay = 30, initialDelay = 30, timeUnit = TimeUnit.MINUTES)
+    public void reconcile() {
+        if (index != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Index posts and their comment texts (postId -> comments) into a new, unpublished index
+     */
+    static Index buildIndex(List<ForumPost> posts, Map<Long, List<String>> commentsByPost) {
+        Index fresh = new Index();
+        for (ForumPost post : posts) {
+            IndexedPost doc = newDocument(post);
+            for (String comment : commentsByPost.getOrDefault(post.getId(), List.of())) {
+                addText(doc, comment, 1, true);
+            }
+            fresh.put(post.getId(), doc);
+        }
+        return fresh;
+    }
+
+    /**
+     * Make an index the live one, after replaying hook updates that arrived while it was built.
+     * A null index (failed load) only ends the rebuild.
+     */
+    void publish(Index fresh) {
+        lock.writeLock().lock();
+        try {
+            if (fresh != null) {
+                if (updatesDuringRebuild != null) {
+                    updatesDuringRebuild.forEach(update -> update.accept(fresh));
+                }
+                index = fresh;
+            }
+            updatesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Write hooks =====
+    // Tokenizing happens when the hook is called; the index only changes after the write commits
+
+    /**
+     * Index a new post, or re-index a post's title, content, category and status after a change.
+     * Terms contributed by comments are kept.
+     */
+    public void onPostSaved(ForumPost post) {
+        Long postId = post.getId();
+        IndexedPost doc = newDocument(post);
+        afterCommit(current -> {
+            IndexedPost previous = current.remove(postId);
+            IndexedPost updated = doc.copy();
+            if (previous != null) {
+                previous.commentTerms.forEach((term, tf) -> updated.add(term, tf, true));
+            }
+            current.put(postId, updated);
+        });
+    }
+
+    /**
+     * Add a post's new comment to its document
+     */
+    public void onCommentAdded(Long postId, String content) {
+        List<String> terms = tokenize(content);
+        afterCommit(current -> {
+            IndexedPost doc = current.remove(postId);
+            if (doc == null) {
+                return;
+            }
+            for (String term : terms) {
+                doc.add(term, 1, true);
+            }
+            current.put(postId, doc);
+        });
+    }
+
+    /**
+     * Remove a deleted post from the index
+     */
+    public void onPostDeleted(Long postId) {
+        afterCommit(current -> current.remove(postId));
+    }
+
+    private void afterCommit(Consumer<Index> update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    private void apply(Consumer<Index> update) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                update.accept(index);
+            }
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Reads =====
+
+    /**
+     * Post ids matching the query, best BM25 score first.
+     * category and status filter the results when not null.
+     */
+    public List<SearchHit> search(String query, String category, String status, int limit) {
+        if (index == null) {
+            synchronized (rebuildMonitor) {
+                if (index == null) {
+                    rebuild();
+                }
+            }
+        }
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return index.search(terms, category, status, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lowercased, stemmed terms without stop words
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() < MIN_TERM_LENGTH || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    /**
+     * Light suffix-stripping stemmer: plurals first, then one verb or derivational suffix
+     */
+    static String stem(String word) {
+        if (word.endsWith("ies") && word.length() > 4) {
+            word = word.substring(0, word.length() - 3) + "y";
+        } else if (word.endsWith("sses") || word.endsWith("shes") || word.endsWith("ches") || word.endsWith("xes")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.endsWith("s") && word.length() > 3
+                && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            word = word.substring(0, word.length() - 1);
+        }
+
+        if (word.endsWith("ied") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        for (String suffix : new String[]{"ness", "ment", "ful", "ing", "ly", "ed"}) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                String stem = word.substring(0, word.length() - suffix.length());
+                // "planned" -> "plan", but "stressed" -> "stress"
+                if ((suffix.equals("ing") || suffix.equals("ed")) && stem.length() > 3
+                        && stem.charAt(stem.length() - 1) == stem.charAt(stem.length() - 2)
+                        && "lsz".indexOf(stem.charAt(stem.length() - 1)) < 0) {
+                    stem = stem.substring(0, stem.length() - 1);
+                }
+                return stem;
+            }
+        }
+        return word;
+    }
+
+    private static IndexedPost newDocument(ForumPost post) {
+        IndexedPost doc = new IndexedPost(post.getCategory(), post.getStatus());
+        addText(doc, post.getTitle(), TITLE_BOOST, false);
+        addText(doc, post.getContent(), 1, false);
+        return doc;
+    }
+
+    private static void addText(IndexedPost doc, String text, int weight, boolean fromComment) {
+        for (String term : tokenize(text)) {
+            doc.add(term, weight, fromComment);
+        }
+    }
+
+    static class Index {
+        // term -> postId -> term frequency
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+        // postId -> indexed document
+        private final Map<Long, IndexedPost> documents = new HashMap<>();
+
+        private long totalLength = 0;
+
+        List<SearchHit> search(Set<String> terms, String category, String status, int limit) {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            int docCount = documents.size();
+            double avgLength = (double) totalLength / docCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - postingList.size() + 0.5) / (postingList.size() + 0.5));
+                postingList.forEach((postId, tf) -> {
+                    IndexedPost doc = documents.get(postId);
+                    if ((category != null && !category.equals(doc.category))
+                            || (status != null && !status.equals(doc.status))) {
+                        return;
+                    }
+                    double norm = tf + K1 * (1 - B + B * doc.length / avgLength);
+                    scores.merge(postId, idf * tf * (K1 + 1) / norm, Double::sum);
+                });
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(e -> new SearchHit(e.getKey(), e.getValue()))
+                    .toList();
+        }
+
+        void put(Long postId, IndexedPost doc) {
+            documents.put(postId, doc);
+            totalLength += doc.length;
+            doc.allTerms().forEach((term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(postId, tf));
+        }
+
+        IndexedPost remove(Long postId) {
+            IndexedPost doc = documents.remove(postId);
+            if (doc == null) {
+                return null;
+            }
+            totalLength -= doc.length;
+            for (String term : doc.allTerms().keySet()) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList != null) {
+                    postingList.remove(postId);
+                    if (postingList.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            return doc;
+        }
+    }
+
+    private static class IndexedPost {
+        private final String category;
+        private final String status;
+        // Post terms and comment terms are kept apart so a post edit keeps its comments
+        private final Map<String, Integer> postTerms = new HashMap<>();
+        private final Map<String, Integer> commentTerms = new HashMap<>();
+        private int length = 0;
+
+        IndexedPost(String category, String status) {
+            this.category = category;
+            this.status = status;
+        }
+
+        void add(String term, int count, boolean fromComment) {
+            (fromComment ? commentTerms : postTerms).merge(term, count, Integer::sum);
+            length += count;
+        }
+
+        IndexedPost copy() {
+            IndexedPost copy = new IndexedPost(category, status);
+            postTerms.forEach((term, tf) -> copy.add(term, tf, false));
+            commentTerms.forEach((term, tf) -> copy.add(term, tf, true));
+            return copy;
+        }
+
+        Map<String, Integer> allTerms() {
+            Map<String, Integer> all = new HashMap<>(postTerms);
+            commentTerms.forEach((term, tf) -> all.merge(term, tf, Integer::sum));
+            return all;
+        }
+    }
+
+    public static class SearchHit {
+        private final Long postId;
+        private final double score;
+
+        public SearchHit(Long postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+
+        public Long getPostId() { return postId; }
+        public double getScore() { return score; }
+    }
+}
@@ -1,25 +1,44 @@
 package com.example.MentalMind.service;
 
+import com.example.MentalMind.dto.ForumFeedItem;
 import com.example.MentalMind.model.ForumComment;
 import com.example.MentalMind.model.ForumPost;
 import com.example.MentalMind.model.User;
-import com.example.MentalMind.model.ForumPostLike;
 import com.example.MentalMind.model.ForumPostFlag;
 import com.example.MentalMind.repository.ForumCommentRepository;
 import com.example.MentalMind.repository.ForumPostRepository;
 import com.example.MentalMind.repository.ForumPostLikeRepository;
 import com.example.MentalMind.repository.ForumPostFlagRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ForumService {
 
+    public static final int FEED_PAGE_SIZE = 20;
+    public static final int SEARCH_RESULT_LIMIT = 20;
+
+    public static final int COMMENT_PAGE_SIZE = 50;
+    public static final int FEED_COMMENT_PAGE_SIZE = 10;
+
+    // First-page cursor for the time-ordered feed: later than any post
+    private static final LocalDateTime FEED_START_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // First-page cursor for oldest-first comment threads: earlier than any comment
+    private static final LocalDateTime THREAD_START_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Autowired
     private ForumPostRepository forumPostRepository;
 
@@ -32,6 +51,18 @@ public class ForumService {
     @Autowired
     private ForumPostFlagRepository forumPostFlagRepository;
 
+    @Autowired
+    private ForumLikeCounterService forumLikeCounterService;
+
+    @Autowired
+    private ForumSearchService forumSearchService;
+
+    @Autowired
+    private ForumPurgeService forumPurgeService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
     /**
      * Create a new forum post
      */
@@ -39,7 +70,10 @@ public class ForumService {
     public ForumPost createPost(User user, String title, String content, String category, boolean anonymous) {
         ForumPost post = new ForumPost(user, title, content, category, anonymous);
         post.setStatus("PENDING"); // All posts start as pending for moderation
-        return forumPostRepository.save(post);
+        ForumPost saved = forumPostRepository.save(post);
+        forumSearchService.onPostSaved(saved);
+        moderationQueueService.invalidateCounts();
+        return saved;
     }
 
     /**
@@ -60,21 +94,142 @@ public class ForumService {
     }
 
     /**
-     * Get posts that need moderation (PENDING with flags or PENDING status)
-     * Returns PENDING posts only; flagged posts are identified by flagCount > 0
+     * Get one page of the approved-post feed.
+     *
+     * Posts are ordered by (createdAt, id) for sort "time" or (likeCount, id)
+     * for sort "likes", both descending; the cursor is the sort key of the last
+     * post of the previous page. Category and author filters run in the database.
+     *
+     * @param category category to show, or null/"all" for every category
+     * @param sort "likes" for most liked, anything else for newest
+     * @param authorId only posts by this user, or null for everyone
+     * @param cursor cursor from a previous page, or null for the first page
+     * @param pageSize maximum number of posts to return
+     */
+    public ForumFeedPage getFeedPage(String category, String sort, Long authorId, String cursor, int pageSize) {
+        String categoryFilter = category == null || category.equalsIgnoreCase("all")
+                ? "" : category.toLowerCase(Locale.ROOT);
+        long authorFilter = authorId != null ? authorId : 0;
+        boolean byLikes = "likes".equalsIgnoreCase(sort);
+
+        // Cursor is "<sortKey>_<id>"; anything unparseable starts from the first page
+        int afterLikes = Integer.MAX_VALUE;
+        LocalDateTime afterTime = FEED_START_TIME;
+        long afterId = Long.MAX_VALUE;
+        int sep = cursor != null ? cursor.lastIndexOf('_') : -1;
+        if (sep > 0) {
+            try {
+                long id = Long.parseLong(cursor.substring(sep + 1));
+                if (byLikes) {
+                    afterLikes = Integer.parseInt(cursor.substring(0, sep));
+                } else {
+                    afterTime = LocalDateTime.parse(cursor.substring(0, sep));
+                }
+                afterId = id;
+            } catch (RuntimeException e) {
+                afterLikes = Integer.MAX_VALUE;
+                afterTime = FEED_START_TIME;
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ForumFeedItem> items = byLikes
+                ? forumPostRepository.findFeedByLikes(categoryFilter, authorFilter, afterLikes, afterId, limit)
+                : forumPostRepository.findFeedByTime(categoryFilter, authorFilter, afterTime, afterId, limit);
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            ForumFeedItem last = items.get(items.size() - 1);
+            nextCursor = (byLikes ? String.valueOf(last.getLikeCount()) : last.getCreatedAt().toString())
+                    + "_" + last.getId();
+        }
+        return new ForumFeedPage(items, nextCursor);
+    }
+
+    /**
+     * Get the first page of comments (oldest first) for each post of a feed page.
+     * One windowed query picks at most pageSize + 1 comment ids per post, a second
+     * loads them with authors; "Load more" continues from each page's cursor.
      */
-    public List<ForumPost> getPostsForModeration() {
-        return forumPostRepository.findByStatusOrderByCreatedAtDesc("PENDING");
+    public Map<Long, CommentPage> getCommentsForPosts(List<Long> postIds, int pageSize) {
+        Map<Long, CommentPage> byPost = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return byPost;
+        }
+        List<Long> ids = forumCommentRepository.findFirstIdsPerPost(postIds, pageSize + 1);
+        if (ids.isEmpty()) {
+            return byPost;
+        }
+        Map<Long, List<ForumComment>> grouped = new HashMap<>();
+        for (ForumComment comment : forumCommentRepository.findByIdsWithUser(ids)) {
+            grouped.computeIfAbsent(comment.getPost().getId(), k -> new ArrayList<>()).add(comment);
+        }
+        for (Map.Entry<Long, List<ForumComment>> entry : grouped.entrySet()) {
+            byPost.put(entry.getKey(), toCommentPage(entry.getValue(), pageSize));
+        }
+        return byPost;
     }
 
     /**
-     * Get approved posts with flags (flagged content)
+     * Resolve which posts of a feed page the viewer liked, flagged and owns.
+     * Ownership comes from the feed items; liked and flagged take one IN-list query each.
      */
-    public List<ForumPost> getFlaggedPosts() {
-        List<ForumPost> approved = getApprovedPosts();
-        return approved.stream()
-            .filter(post -> post.getFlagCount() > 0)
-            .toList();
+    public ViewerState resolveViewerState(List<ForumFeedItem> posts, User viewer) {
+        Set<Long> owned = new HashSet<>();
+        List<Long> postIds = new ArrayList<>(posts.size());
+        for (ForumFeedItem post : posts) {
+            postIds.add(post.getId());
+            if (viewer.getId().equals(post.getAuthorId())) {
+                owned.add(post.getId());
+            }
+        }
+        if (postIds.isEmpty()) {
+            return new ViewerState(Set.of(), Set.of(), owned);
+        }
+        return new ViewerState(
+                new HashSet<>(forumPostLikeRepository.findLikedPostIds(viewer, postIds)),
+                new HashSet<>(forumPostFlagRepository.findFlaggedPostIds(viewer, postIds)),
+                owned);
+    }
+
+    public static class ViewerState {
+        private final Set<Long> likedPostIds;
+        private final Set<Long> flaggedPostIds;
+        private final Set<Long> ownedPostIds;
+
+        public ViewerState(Set<Long> likedPostIds, Set<Long> flaggedPostIds, Set<Long> ownedPostIds) {
+            this.likedPostIds = likedPostIds;
+            this.flaggedPostIds = flaggedPostIds;
+            this.ownedPostIds = ownedPostIds;
+        }
+
+        public Set<Long> getLikedPostIds() { return likedPostIds; }
+        public Set<Long> getFlaggedPostIds() { return flaggedPostIds; }
+        public Set<Long> getOwnedPostIds() { return ownedPostIds; }
+    }
+
+    public static class ForumFeedPage {
+        private final List<ForumFeedItem> posts;
+        private final String nextCursor;
+
+        public ForumFeedPage(List<ForumFeedItem> posts, String nextCursor) {
+            this.posts = posts;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<ForumFeedItem> getPosts() { return posts; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean hasMore() { return nextCursor != null; }
+
+        public List<Long> getPostIds() {
+            return posts.stream().map(ForumFeedItem::getId).toList();
+        }
     }
 
     /**
@@ -86,28 +241,31 @@ public class ForumService {
 
     /**
      * Toggle like on a post for a specific user. Returns result with like count and liked state.
+     * The like row is deleted or inserted idempotently against the (post, user) unique key and
+     * the count change is coalesced by ForumLikeCounterService instead of rewriting the post.
      */
     @Transactional
     public LikeToggleResult toggleLike(Long postId, User user) {
         ForumPost post = forumPostRepository.findById(postId)
             .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        boolean alreadyLiked = forumPostLikeRepository.existsByPostAndUser(post, user);
-
-        if (alreadyLiked) {
-            forumPostLikeRepository.deleteByPostAndUser(post, user);
+        boolean liked;
+        long delta = 0;
+        if (forumPostLikeRepository.deleteLike(postId, user.getId()) > 0) {
+            delta = -1;
+            liked = false;
         } else {
-            ForumPostLike like = new ForumPostLike(post, user);
-            forumPostLikeRepository.save(like);
+            // Zero rows inserted means a concurrent request already added this like
+            if (forumPostLikeRepository.insertIfAbsent(postId, user.getId()) > 0) {
+                delta = 1;
+            }
+            liked = true;
         }
+        // Queued after commit, so it is not yet part of the pending count below
+        forumLikeCounterService.record(postId, delta);
 
-        // Sync post likeCount from actual count for consistency
-        long count = forumPostLikeRepository.countByPost(post);
-        post.setLikeCount((int) count);
-        post.setUpdatedAt(LocalDateTime.now());
-        forumPostRepository.save(post);
-
-        return new LikeToggleResult((int) count, !alreadyLiked);
+        long count = post.getLikeCount() + forumLikeCounterService.getPending(postId) + delta;
+        return new LikeToggleResult((int) Math.max(0, count), liked);
     }
 
     public static class LikeToggleResult {
@@ -132,16 +290,89 @@ public class ForumService {
             .orElseThrow(() -> new RuntimeException("Post not found"));
         
         ForumComment comment = new ForumComment(post, user, content, anonymous);
-        return forumCommentRepository.save(comment);
+        ForumComment saved = forumCommentRepository.save(comment);
+        forumPostRepository.addToCommentCount(postId, 1);
+        forumSearchService.onCommentAdded(postId, content);
+        return saved;
     }
 
     /**
-     * Get all comments for a post
+     * Get one page of a post's comments.
+     *
+     * Comments are ordered by (createdAt, id), newest or oldest first; the cursor
+     * is "<createdAt>_<id>" of the last comment of the previous page, so each page
+     * costs the same regardless of how long the thread is.
      */
-    public List<ForumComment> getPostComments(Long postId) {
-        ForumPost post = forumPostRepository.findById(postId)
-            .orElseThrow(() -> new RuntimeException("Post not found"));
-        return forumCommentRepository.findByPostOrderByCreatedAtAsc(post);
+    public CommentPage getCommentPage(Long postId, boolean newestFirst, String cursor, int pageSize) {
+        LocalDateTime startTime = newestFirst ? FEED_START_TIME : THREAD_START_TIME;
+        long startId = newestFirst ? Long.MAX_VALUE : 0;
+
+        // Anything unparseable starts from the first page
+        LocalDateTime keyTime = startTime;
+        long keyId = startId;
+        int sep = cursor != null ? cursor.lastIndexOf('_') : -1;
+        if (sep > 0) {
+            try {
+                LocalDateTime time = LocalDateTime.parse(cursor.substring(0, sep));
+                keyId = Long.parseLong(cursor.substring(sep + 1));
+                keyTime = time;
+            } catch (RuntimeException e) {
+                keyId = startId;
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ForumComment> comments = newestFirst
+                ? forumCommentRepository.findPageNewestFirst(postId, keyTime, keyId, limit)
+                : forumCommentRepository.findPageOldestFirst(postId, keyTime, keyId, limit);
+
+        return toCommentPage(comments, pageSize);
+    }
+
+    // Trim a pageSize + 1 fetch to one page, with the cursor of its last comment if more remain
+    private CommentPage toCommentPage(List<ForumComment> comments, int pageSize) {
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            ForumComment last = comments.get(comments.size() - 1);
+            nextCursor = last.getCreatedAt() + "_" + last.getId();
+        }
+        return new CommentPage(comments, nextCursor);
+    }
+
+    public static class CommentPage {
+        private final List<ForumComment> comments;
+        private final String nextCursor;
+
+        public CommentPage(List<ForumComment> comments, String nextCursor) {
+            this.comments = comments;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<ForumComment> getComments() { return comments; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean hasMore() { return nextCursor != null; }
+    }
+
+    /**
+     * Recompute every post's comment count (after comments were written outside addComment)
+     */
+    @Transactional
+    public int recountComments() {
+        return forumPostRepository.recountComments();
+    }
+
+    /**
+     * Recompute comment counts only if some post with comments still shows zero;
+     * returns the number of posts updated, 0 when the counts were already current
+     */
+    @Transactional
+    public int recountCommentsIfStale() {
+        if (!forumPostRepository.existsUncountedComments()) {
+            return 0;
+        }
+        return forumPostRepository.recountComments();
     }
 
     /**
@@ -155,7 +386,10 @@ public class ForumService {
         post.setStatus("APPROVED");
         post.setModerationNote(moderationNote);
         post.setUpdatedAt(LocalDateTime.now());
-        return forumPostRepository.save(post);
+        ForumPost saved = forumPostRepository.save(post);
+        forumSearchService.onPostSaved(saved);
+        moderationQueueService.invalidateCounts();
+        return saved;
     }
 
     /**
@@ -169,7 +403,10 @@ public class ForumService {
         post.setStatus("REJECTED");
         post.setModerationNote(moderationNote);
         post.setUpdatedAt(LocalDateTime.now());
-        return forumPostRepository.save(post);
+        ForumPost saved = forumPostRepository.save(post);
+        forumSearchService.onPostSaved(saved);
+        moderationQueueService.invalidateCounts();
+        return saved;
     }
 
     /**
@@ -192,8 +429,11 @@ public class ForumService {
         // Update flag count
         long newCount = forumPostFlagRepository.countByPost(post);
         post.setFlagCount((int) newCount);
+        post.setLastFlaggedAt(flag.getCreatedAt());
         post.setUpdatedAt(LocalDateTime.now());
-        return forumPostRepository.save(post);
+        ForumPost saved = forumPostRepository.save(post);
+        moderationQueueService.invalidateCounts();
+        return saved;
     }
 
     /**
@@ -204,10 +444,13 @@ public class ForumService {
         ForumPost post = forumPostRepository.findById(postId)
             .orElseThrow(() -> new RuntimeException("Post not found"));
         
-        forumPostFlagRepository.deleteByPost(post);
+        forumPostFlagRepository.deleteByPostIds(List.of(postId));
         post.setFlagCount(0);
+        post.setLastFlaggedAt(null);
         post.setUpdatedAt(LocalDateTime.now());
-        return forumPostRepository.save(post);
+        ForumPost saved = forumPostRepository.save(post);
+        moderationQueueService.invalidateCounts();
+        return saved;
     }
 
     /**
@@ -226,6 +469,7 @@ public class ForumService {
         return forumPostFlagRepository.existsByPostAndUser(post, user);
     }
 
+
     /**
      * Get posts by user
      */
@@ -233,20 +477,6 @@ public class ForumService {
         return forumPostRepository.findByUserOrderByCreatedAtDesc(user);
     }
 
-    /**
-     * Count pending posts
-     */
-    public long countPendingPosts() {
-        return forumPostRepository.countByStatus("PENDING");
-    }
-
-    /**
-     * Count flagged posts (posts with flagCount > 0)
-     */
-    public long countFlaggedPosts() {
-        return getFlaggedPosts().size();
-    }
-
     /**
      * Set post to pending status (counselor moderation)
      */
@@ -258,21 +488,44 @@ public class ForumService {
         post.setStatus("PENDING");
         post.setModerationNote(moderationNote);
         post.setUpdatedAt(LocalDateTime.now());
-        return forumPostRepository.save(post);
+        ForumPost saved = forumPostRepository.save(post);
+        forumSearchService.onPostSaved(saved);
+        moderationQueueService.invalidateCounts();
+        return saved;
     }
 
     /**
-     * Delete a post (counselor moderation)
+     * Delete a post (counselor moderation) with its likes, comments and flags
      */
     @Transactional
-    public void deletePost(Long postId) {
-        ForumPost post = forumPostRepository.findById(postId)
-            .orElseThrow(() -> new RuntimeException("Post not found"));
-        
-        // Delete all likes, comments, and flags first (cascade should handle this, but being explicit)
-        forumPostLikeRepository.deleteByPost(post);
-        forumCommentRepository.deleteByPost(post);
-        forumPostFlagRepository.deleteByPost(post);
-        forumPostRepository.delete(post);
+    public ForumPurgeService.PurgeReport deletePost(Long postId) {
+        if (!forumPostRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+        return forumPurgeService.purgePosts(List.of(postId));
+    }
+
+    /**
+     * Full-text search over posts and their comments, best match first.
+     * Only posts with the given status are returned; category is optional.
+     */
+    public List<ForumPost> searchPosts(String query, String category, String status, int limit) {
+        List<ForumSearchService.SearchHit> hits = forumSearchService.search(query, category, status, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ForumPost> byId = new HashMap<>();
+        for (ForumPost post : forumPostRepository.findAllById(
+                hits.stream().map(ForumSearchService.SearchHit::getPostId).toList())) {
+            byId.put(post.getId(), post);
+        }
+        List<ForumPost> results = new ArrayList<>();
+        for (ForumSearchService.SearchHit hit : hits) {
+            ForumPost post = byId.get(hit.getPostId());
+            if (post != null) {
+                results.add(post);
+            }
+        }
+        return results;
     }
 }
@@ -5,27 +5,53 @@ import com.example.MentalMind.model.LearningMaterial;
 import com.example.MentalMind.model.LearningModule;
 import com.example.MentalMind.repository.StudentMaterialProgressRepository;
 import com.example.MentalMind.repository.LearningMaterialRepository;
+import com.example.MentalMind.repository.LearningModuleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Student progress through the learning modules.
+ *
+ * Per-module progress for a student comes from one grouped query that counts
+ * each active module's active materials and the ones the student completed.
+ * The resulting progress vector is cached per student and dropped when the
+ * student marks a material (again after commit), or for everyone when
+ * counselors add or remove modules and materials.
+ */
 @Service
 public class LearningProgressService {
 
+    // Cached progress vectors beyond this many students are dropped wholesale
+    private static final int MAX_CACHED_STUDENTS = 5000;
+
     @Autowired
     private StudentMaterialProgressRepository progressRepository;
 
     @Autowired
     private LearningMaterialRepository materialRepository;
 
+    @Autowired
+    private LearningModuleRepository moduleRepository;
+
+    // Bumped on every invalidation so a vector loaded across a write is not cached
+    private final AtomicLong version = new AtomicLong();
+
+    // studentId -> moduleId -> progress, for active modules only
+    private final Map<Long, Map<Long, ModuleProgress>> progressVectors = new ConcurrentHashMap<>();
+
     /**
      * Mark a material as completed for a student
      */
@@ -54,7 +80,9 @@ public class LearningProgressService {
             progress.setCompletedAt(LocalDateTime.now());
         }
 
-        return progressRepository.save(progress);
+        StudentMaterialProgress saved = progressRepository.save(progress);
+        invalidateStudent(studentId);
+        return saved;
     }
 
     /**
@@ -70,6 +98,7 @@ public class LearningProgressService {
             progress.setIsCompleted(false);
             progress.setCompletedAt(null);
             progressRepository.save(progress);
+            invalidateStudent(studentId);
         }
     }
 
@@ -86,54 +115,86 @@ public class LearningProgressService {
      * Get all completed material IDs for a student
      */
     public Set<Long> getCompletedMaterialIds(Long studentId) {
-        return progressRepository.findByStudentIdAndIsCompletedTrue(studentId)
-                .stream()
-                .map(p -> p.getMaterial().getId())
-                .collect(Collectors.toSet());
+        return new HashSet<>(progressRepository.findCompletedMaterialIds(studentId));
     }
 
     /**
      * Get all completed material IDs for a student within a specific module
      */
     public Set<Long> getCompletedMaterialIdsForModule(Long studentId, Long moduleId) {
-        return progressRepository.findByStudentIdAndIsCompletedTrue(studentId)
-                .stream()
-                .filter(p -> p.getMaterial().getModule().getId().equals(moduleId))
-                .map(p -> p.getMaterial().getId())
-                .collect(Collectors.toSet());
+        return new HashSet<>(progressRepository.findCompletedMaterialIdsForModule(studentId, moduleId));
     }
 
     /**
-     * Get progress percentage for a module
+     * Progress of a student in every active module, by module id, from the cache or one grouped query
      */
-    public int getModuleProgressPercentage(Long studentId, LearningModule module) {
-        List<LearningMaterial> activeMaterials = module.getMaterials().stream()
-                .filter(LearningMaterial::getIsActive)
-                .toList();
-
-        if (activeMaterials.isEmpty()) {
-            return 0;
+    public Map<Long, ModuleProgress> getProgressVector(Long studentId) {
+        Map<Long, ModuleProgress> cached = progressVectors.get(studentId);
+        if (cached != null) {
+            return cached;
         }
+        long loadVersion = version.get();
+        Map<Long, ModuleProgress> vector = new HashMap<>();
+        for (Object[] row : moduleRepository.countMaterialProgressByModule(studentId)) {
+            Long moduleId = (Long) row[0];
+            vector.put(moduleId, new ModuleProgress(moduleId, (Long) row[1], (Long) row[2]));
+        }
+        vector = Map.copyOf(vector);
+        // A write during the load may not be reflected in the counts; serve them once without caching
+        if (version.get() == loadVersion) {
+            if (progressVectors.size() >= MAX_CACHED_STUDENTS) {
+                progressVectors.clear();
+            }
+            progressVectors.put(studentId, vector);
+        }
+        return vector;
+    }
 
-        Set<Long> completedIds = getCompletedMaterialIdsForModule(studentId, module.getId());
-        int completedCount = (int) activeMaterials.stream()
-                .filter(m -> completedIds.contains(m.getId()))
-                .count();
-
-        return (int) Math.round((double) completedCount / activeMaterials.size() * 100);
+    /**
+     * Get progress percentage for a module
+     */
+    public int getModuleProgressPercentage(Long studentId, LearningModule module) {
+        ModuleProgress progress = getProgressVector(studentId).get(module.getId());
+        return progress != null ? progress.getPercentage() : 0;
     }
 
     /**
      * Get progress statistics for all modules
      */
     public Map<Long, Integer> getAllModulesProgress(Long studentId, List<LearningModule> modules) {
+        Map<Long, ModuleProgress> vector = getProgressVector(studentId);
         Map<Long, Integer> progressMap = new HashMap<>();
         for (LearningModule module : modules) {
-            progressMap.put(module.getId(), getModuleProgressPercentage(studentId, module));
+            ModuleProgress progress = vector.get(module.getId());
+            progressMap.put(module.getId(), progress != null ? progress.getPercentage() : 0);
         }
         return progressMap;
     }
 
+    /**
+     * Drop a student's cached progress after one of their materials changed state
+     */
+    public void invalidateStudent(Long studentId) {
+        version.incrementAndGet();
+        progressVectors.remove(studentId);
+        afterCommit(() -> {
+            version.incrementAndGet();
+            progressVectors.remove(studentId);
+        });
+    }
+
+    /**
+     * Drop all cached progress after modules or materials were added or removed
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        progressVectors.clear();
+        afterCommit(() -> {
+            version.incrementAndGet();
+            progressVectors.clear();
+        });
+    }
+
     /**
      * Get the progress record for a student and material
      */
@@ -152,6 +213,40 @@ public class LearningProgressService {
      * Get completed materials count for a student
      */
     public long getCompletedMaterialsCount(Long studentId) {
-        return progressRepository.findByStudentIdAndIsCompletedTrue(studentId).size();
+        return progressRepository.countByStudentIdAndIsCompletedTrue(studentId);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    public static class ModuleProgress {
+        private final Long moduleId;
+        private final long totalMaterials;
+        private final long completedMaterials;
+
+        public ModuleProgress(Long moduleId, long totalMaterials, long completedMaterials) {
+            this.moduleId = moduleId;
+            this.totalMaterials = totalMaterials;
+            this.completedMaterials = completedMaterials;
+        }
+
+        public Long getModuleId() { return moduleId; }
+        public long getTotalMaterials() { return totalMaterials; }
+        public long getCompletedMaterials() { return completedMaterials; }
+
+        /**
+         * Completed share of the active materials, rounded to a whole percent; 0 for an empty module
+         */
+        public int getPercentage() {
+            return totalMaterials == 0 ? 0 : (int) Math.round((double) completedMaterials / totalMaterials * 100);
+        }
     }
 }
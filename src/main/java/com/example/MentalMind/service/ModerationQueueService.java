@@ -0,0 +1,162 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.ForumPost;
+import com.example.MentalMind.repository.ForumPostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counselor moderation queue over flagged and pending forum posts.
+ *
+ * Flagged posts are found through the (status, flag_count, created_at) index,
+ * ordered by a priority score and paged in the database; only the posts of
+ * the requested page are loaded in full. Pending posts are paged newest
+ * first. Badge counts are cached and invalidated by ForumService and
+ * ForumPurgeService, again after commit, whenever a post's moderation state
+ * changes.
+ */
+@Service
+public class ModerationQueueService {
+
+    public static final int QUEUE_PAGE_SIZE = 20;
+
+    // Priority weights: each flag, a recency bonus that halves every day since the last flag,
+    // and a category bonus for topics where harmful content is most urgent
+    private static final double FLAG_WEIGHT = 10.0;
+    private static final double RECENCY_WEIGHT = 20.0;
+    private static final double RECENCY_HALF_LIFE_HOURS = 24.0;
+    private static final double DEPRESSION_WEIGHT = 15.0;
+    private static final double ANXIETY_WEIGHT = 10.0;
+    private static final double STRESS_WEIGHT = 5.0;
+
+    // Upper bound on how long badge counts are served from cache
+    private static final Duration COUNTS_TTL = Duration.ofMinutes(1);
+
+    @Autowired
+    private ForumPostRepository forumPostRepository;
+
+    private volatile BadgeCounts cachedCounts;
+
+    // Bumped on every invalidation; counts loaded across a bump are served once but not cached
+    private final AtomicLong countsGeneration = new AtomicLong();
+
+    /**
+     * Pending and flagged post counts for the moderation badges
+     */
+    public BadgeCounts getBadgeCounts() {
+        BadgeCounts counts = cachedCounts;
+        if (counts == null || counts.computedAt.plus(COUNTS_TTL).isBefore(LocalDateTime.now())) {
+            long loadGeneration = countsGeneration.get();
+            counts = new BadgeCounts(forumPostRepository.countByStatus("PENDING"), forumPostRepository.countFlagged());
+            synchronized (countsGeneration) {
+                if (countsGeneration.get() == loadGeneration) {
+                    cachedCounts = counts;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Drop the cached badge counts after a post's moderation state changed, now and again after commit
+     */
+    public void invalidateCounts() {
+        clearCounts();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearCounts();
+                }
+            });
+        }
+    }
+
+    private void clearCounts() {
+        synchronized (countsGeneration) {
+            countsGeneration.incrementAndGet();
+            cachedCounts = null;
+        }
+    }
+
+    /**
+     * One page of flagged approved posts, highest priority first.
+     * The database ranks and pages the flagged posts; only the page's posts are loaded.
+     */
+    public QueuePage getFlaggedQueue(int page, int pageSize) {
+        List<Long> ids = forumPostRepository.findFlaggedQueueIds(LocalDateTime.now(),
+                FLAG_WEIGHT, RECENCY_WEIGHT, RECENCY_HALF_LIFE_HOURS, DEPRESSION_WEIGHT, ANXIETY_WEIGHT, STRESS_WEIGHT,
+                PageRequest.of(Math.max(0, page), pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        Map<Long, ForumPost> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ForumPost post : forumPostRepository.findByIdsWithUser(ids)) {
+                byId.put(post.getId(), post);
+            }
+        }
+        List<ForumPost> posts = new ArrayList<>();
+        for (Long id : ids) {
+            ForumPost post = byId.get(id);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return new QueuePage(posts, page, hasMore);
+    }
+
+    /**
+     * One page of posts awaiting approval, newest first
+     */
+    public QueuePage getPendingQueue(int page, int pageSize) {
+        List<ForumPost> posts = forumPostRepository.findByStatusWithUser("PENDING",
+                PageRequest.of(Math.max(0, page), pageSize + 1));
+        boolean hasMore = posts.size() > pageSize;
+        return new QueuePage(hasMore ? posts.subList(0, pageSize) : posts, page, hasMore);
+    }
+
+    public static class BadgeCounts {
+        private final long pendingCount;
+        private final long flaggedCount;
+        private final LocalDateTime computedAt = LocalDateTime.now();
+
+        public BadgeCounts(long pendingCount, long flaggedCount) {
+            this.pendingCount = pendingCount;
+            this.flaggedCount = flaggedCount;
+        }
+
+        public long getPendingCount() { return pendingCount; }
+        public long getFlaggedCount() { return flaggedCount; }
+        public long getTotal() { return pendingCount + flaggedCount; }
+    }
+
+    public static class QueuePage {
+        private final List<ForumPost> posts;
+        private final int page;
+        private final boolean hasMore;
+
+        public QueuePage(List<ForumPost> posts, int page, boolean hasMore) {
+            this.posts = posts;
+            this.page = page;
+            this.hasMore = hasMore;
+        }
+
+        public List<ForumPost> getPosts() { return posts; }
+        public int getPage() { return page; }
+        public boolean hasMore() { return hasMore; }
+    }
+}
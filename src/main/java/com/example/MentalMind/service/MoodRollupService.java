@@ -0,0 +1,122 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.MoodRollup;
+import com.example.MentalMind.repository.MoodEntryRepository;
+import com.example.MentalMind.repository.MoodRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the mood_rollups table of daily and weekly mood aggregates
+ * (count, sum, min, max) per student and campus-wide.
+ *
+ * New entries are added with one relative upsert over the four affected
+ * buckets. A same-day overwrite adjusts the sums in place and only re-reads
+ * mood_entries for buckets whose min or max was the replaced score.
+ * Existing history is loaded with a chunked backfill that rebuilds whole
+ * weeks from mood_entries, so it can be re-run over any range safely.
+ */
+@Service
+public class MoodRollupService {
+
+    // Weeks of mood entries aggregated per backfill chunk
+    private static final int BACKFILL_CHUNK_WEEKS = 4;
+
+    @Autowired
+    private MoodRollupRepository moodRollupRepository;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    /**
+     * Add a newly created mood entry to its day and week buckets
+     */
+    @Transactional
+    public void onMoodAdded(Long studentId, LocalDateTime createdAt, int score) {
+        LocalDate day = createdAt.toLocalDate();
+        moodRollupRepository.addEntry(studentId, day, MoodRollup.bucketStart(MoodRollup.WEEK, day), score);
+    }
+
+    /**
+     * Replace the score of an existing mood entry (same-day overwrite) in its day and week buckets
+     */
+    @Transactional
+    public void onMoodUpdated(Long studentId, LocalDateTime createdAt, int oldScore, int newScore) {
+        if (oldScore == newScore) {
+            return;
+        }
+        LocalDate day = createdAt.toLocalDate();
+        LocalDate week = MoodRollup.bucketStart(MoodRollup.WEEK, day);
+        moodRollupRepository.replaceScore(studentId, day, week, oldScore, newScore);
+        // The bounds refresh reads mood_entries, so the new score must be written first
+        moodEntryRepository.flush();
+        moodRollupRepository.refreshBounds(studentId, day, week, oldScore);
+    }
+
+    /**
+     * Rebuild all buckets for the days [from, to] from mood_entries, a few weeks per statement
+     */
+    public void backfill(LocalDate from, LocalDate to) {
+        LocalDate chunkStart = MoodRollup.bucketStart(MoodRollup.WEEK, from);
+        LocalDate end = MoodRollup.bucketStart(MoodRollup.WEEK, to).plusWeeks(1);
+        while (chunkStart.isBefore(end)) {
+            LocalDate chunkEnd = chunkStart.plusWeeks(BACKFILL_CHUNK_WEEKS);
+            if (chunkEnd.isAfter(end)) {
+                chunkEnd = end;
+            }
+            LocalDateTime start = chunkStart.atStartOfDay();
+            LocalDateTime stop = chunkEnd.atStartOfDay();
+            moodRollupRepository.rebuildStudentDays(start, stop);
+            moodRollupRepository.rebuildCampusDays(start, stop);
+            moodRollupRepository.rebuildStudentWeeks(start, stop);
+            moodRollupRepository.rebuildCampusWeeks(start, stop);
+            chunkStart = chunkEnd;
+        }
+    }
+
+    /**
+     * Backfill the whole mood history when the rollup table is still empty; returns whether it ran
+     */
+    public boolean backfillIfEmpty() {
+        if (moodRollupRepository.count() > 0) {
+            return false;
+        }
+        LocalDateTime earliest = moodEntryRepository.findEarliestCreatedAt();
+        if (earliest == null) {
+            return false;
+        }
+        backfill(earliest.toLocalDate(), LocalDate.now());
+        return true;
+    }
+
+    /**
+     * Campus-wide buckets of the given granularity within [from, to), oldest first
+     */
+    public List<MoodRollup> getCampusSeries(String granularity, LocalDate from, LocalDate to) {
+        return moodRollupRepository.findSeries(granularity, List.of(MoodRollup.CAMPUS), from, to);
+    }
+
+    /**
+     * Buckets of the given granularity within [from, to) for several students, by student id, oldest first
+     */
+    public Map<Long, List<MoodRollup>> getStudentSeries(Collection<Long> studentIds, String granularity,
+            LocalDate from, LocalDate to) {
+        Map<Long, List<MoodRollup>> series = new HashMap<>();
+        if (studentIds.isEmpty()) {
+            return series;
+        }
+        for (MoodRollup rollup : moodRollupRepository.findSeries(granularity, studentIds, from, to)) {
+            series.computeIfAbsent(rollup.getStudentId(), k -> new ArrayList<>()).add(rollup);
+        }
+        return series;
+    }
+}
@@ -1,15 +1,18 @@
 package com.example.MentalMind.service;
 
+import com.example.MentalMind.dto.MoodDayRow;
 import com.example.MentalMind.model.MoodEntry;
 import com.example.MentalMind.model.User;
 import com.example.MentalMind.repository.MoodEntryRepository;
 import com.example.MentalMind.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 
 @Service
@@ -21,6 +24,18 @@ public class MoodService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
+    @Autowired
+    private StudentActivityService studentActivityService;
+
+    @Autowired
+    private MoodStreakService moodStreakService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
     /**
      * Log a mood entry for a user
      */
@@ -32,17 +47,26 @@ public class MoodService {
         // Check if mood already logged today
         Optional<MoodEntry> existingEntry = moodEntryRepository.findTodaysMoodByUser(user);
 
+        MoodEntry saved;
         if (existingEntry.isPresent()) {
             // Update existing entry
             MoodEntry entry = existingEntry.get();
+            int previousScore = entry.getMoodScore();
             entry.setMoodScore(moodScore);
             entry.setNotes(notes);
-            return moodEntryRepository.save(entry);
+            saved = moodEntryRepository.save(entry);
+            moodRollupService.onMoodUpdated(userId, saved.getCreatedAt(), previousScore, moodScore);
         } else {
             // Create new entry
             MoodEntry entry = new MoodEntry(user, moodScore, notes);
-            return moodEntryRepository.save(entry);
+            saved = moodEntryRepository.save(entry);
+            moodRollupService.onMoodAdded(userId, saved.getCreatedAt(), moodScore);
         }
+
+        dashboardAggregateService.onMoodLogged(userId, saved.getCreatedAt());
+        studentActivityService.onMoodLogged(user, saved);
+        moodStreakService.invalidate(userId);
+        return saved;
     }
 
     /**
@@ -100,84 +124,48 @@ public class MoodService {
         stats.put("mostCommonEmoji", getMoodEmoji(mostCommon.orElse(3)));
 
         // Streak calculation
-        stats.put("streak", calculateStreak(user));
+        stats.put("streak", moodStreakService.getCurrentStreak(user));
 
         return stats;
     }
 
     /**
-     * Get monthly moods as a map of date string (yyyy-MM-dd) to MoodEntry
+     * Get calendar day buckets (date string yyyy-MM-dd -> row) for days in [start, end)
      */
-    public Map<String, MoodEntry> getMonthlyMoodsMap(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        LocalDateTime endOfMonth = LocalDate.now().plusMonths(1).withDayOfMonth(1).atStartOfDay();
-
-        List<MoodEntry> entries = moodEntryRepository.findByUserAndCreatedAtBetweenOrderByCreatedAtDesc(
-                user, startOfMonth, endOfMonth);
-
-        Map<String, MoodEntry> moodMap = new HashMap<>();
-        for (MoodEntry entry : entries) {
-            String dateKey = entry.getCreatedAt().toLocalDate().toString();
-            moodMap.put(dateKey, entry);
+    public Map<String, MoodDayRow> getCalendarDays(Long userId, LocalDate start, LocalDate end) {
+        List<MoodDayRow> rows = moodEntryRepository.findCalendarRows(
+                userId, start.atStartOfDay(), end.atStartOfDay());
+
+        // Rows are oldest first, so the latest entry of a day wins
+        Map<String, MoodDayRow> days = new LinkedHashMap<>();
+        for (MoodDayRow row : rows) {
+            days.put(row.getDate().toString(), row);
         }
-        return moodMap;
+        return days;
     }
 
     /**
-     * Get weekly moods as a map of date string (yyyy-MM-dd) to MoodEntry
+     * Get calendar day buckets for the given month
      */
-    public Map<String, MoodEntry> getWeeklyMoodsMap(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        LocalDateTime startOfWeek = LocalDate.now().minusDays(6).atStartOfDay();
-        LocalDateTime endOfWeek = LocalDate.now().plusDays(1).atStartOfDay();
-
-        List<MoodEntry> entries = moodEntryRepository.findByUserAndCreatedAtBetweenOrderByCreatedAtDesc(
-                user, startOfWeek, endOfWeek);
-
-        Map<String, MoodEntry> moodMap = new HashMap<>();
-        for (MoodEntry entry : entries) {
-            String dateKey = entry.getCreatedAt().toLocalDate().toString();
-            moodMap.put(dateKey, entry);
-        }
-        return moodMap;
+    public Map<String, MoodDayRow> getMonthCalendar(Long userId, YearMonth month) {
+        return getCalendarDays(userId, month.atDay(1), month.plusMonths(1).atDay(1));
     }
 
     /**
-     * Calculate the current mood logging streak
+     * Get calendar day buckets for the last 7 days including today
      */
-    private int calculateStreak(User user) {
-        List<MoodEntry> entries = moodEntryRepository.findByUserOrderByCreatedAtDesc(user);
-        if (entries.isEmpty()) {
-            return 0;
-        }
-
-        int streak = 0;
-        LocalDate expectedDate = LocalDate.now();
-
-        // Check if today has an entry
-        boolean hasTodayEntry = entries.stream()
-                .anyMatch(e -> e.getCreatedAt().toLocalDate().equals(LocalDate.now()));
-
-        if (!hasTodayEntry) {
-            expectedDate = expectedDate.minusDays(1);
-        }
-
-        Set<LocalDate> entryDates = new HashSet<>();
-        for (MoodEntry entry : entries) {
-            entryDates.add(entry.getCreatedAt().toLocalDate());
-        }
-
-        while (entryDates.contains(expectedDate)) {
-            streak++;
-            expectedDate = expectedDate.minusDays(1);
-        }
+    public Map<String, MoodDayRow> getWeekCalendar(Long userId) {
+        LocalDate today = LocalDate.now();
+        return getCalendarDays(userId, today.minusDays(6), today.plusDays(1));
+    }
 
-        return streak;
+    /**
+     * Get the notes of a user's mood entry for one day, loaded when the day is opened
+     */
+    public Optional<String> getMoodNotes(Long userId, LocalDate date) {
+        List<String> notes = moodEntryRepository.findNotesBetween(
+                userId, date.atStartOfDay(), date.plusDays(1).atStartOfDay(), PageRequest.of(0, 1));
+        return notes.isEmpty() ? Optional.empty() : Optional.ofNullable(notes.get(0));
     }
 
     /**
@@ -0,0 +1,94 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.User;
+import com.example.MentalMind.repository.MoodEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mood logging streaks computed from distinct entry dates only.
+ *
+ * Dates are read newest first a page at a time and the walk stops at the
+ * first gap, so cost follows the streak length rather than lifetime history.
+ * Current streaks are cached per user for the day and evicted on every mood log.
+ */
+@Service
+public class MoodStreakService {
+
+    // Distinct mood days fetched per page while walking a streak
+    private static final int PAGE_SIZE = 31;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    // userId -> current streak, valid only for the day it was computed
+    private final Map<Long, CachedStreak> currentStreaks = new ConcurrentHashMap<>();
+
+    /**
+     * Current streak: consecutive days ending today, or yesterday if nothing was logged today yet
+     */
+    public int getCurrentStreak(User user) {
+        LocalDate today = LocalDate.now();
+        CachedStreak cached = currentStreaks.get(user.getId());
+        if (cached != null && cached.day.equals(today)) {
+            return cached.streak;
+        }
+
+        int streak = 0;
+        List<LocalDate> latest = moodEntryRepository.findDistinctEntryDates(user, PageRequest.of(0, 1));
+        if (!latest.isEmpty() && !latest.get(0).isBefore(today.minusDays(1))) {
+            streak = countStreakEndingAt(user, latest.get(0));
+        }
+        currentStreaks.put(user.getId(), new CachedStreak(today, streak));
+        return streak;
+    }
+
+    /**
+     * Count consecutive logging days ending at the given date (0 if nothing was logged that day)
+     */
+    public int countStreakEndingAt(User user, LocalDate endDate) {
+        int streak = 0;
+        LocalDate expected = endDate;
+        int page = 0;
+        while (true) {
+            List<LocalDate> days = moodEntryRepository.findDistinctEntryDates(
+                    user, PageRequest.of(page++, PAGE_SIZE));
+            for (LocalDate day : days) {
+                if (day.isAfter(expected)) {
+                    continue;
+                }
+                if (!day.equals(expected)) {
+                    return streak;
+                }
+                streak++;
+                expected = expected.minusDays(1);
+            }
+            if (days.size() < PAGE_SIZE) {
+                return streak;
+            }
+        }
+    }
+
+    /**
+     * Drop the cached streak for a user after a mood write
+     */
+    public void invalidate(Long userId) {
+        currentStreaks.remove(userId);
+    }
+
+    private static class CachedStreak {
+        private final LocalDate day;
+        private final int streak;
+
+        CachedStreak(LocalDate day, int streak) {
+            this.day = day;
+            this.streak = streak;
+        }
+    }
+}
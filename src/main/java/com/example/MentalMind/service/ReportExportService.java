@@ -0,0 +1,186 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.repository.AppointmentRepository;
+import com.example.MentalMind.repository.FeedbackRepository;
+import com.example.MentalMind.repository.MoodEntryRepository;
+import com.example.MentalMind.repository.SelfAssessmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streaming exports of counselor report data as CSV or NDJSON.
+ *
+ * Rows are read as scalar columns through read-only repository streams with
+ * a streaming fetch size and written to the response one at a time, so an
+ * export never holds more than a single row in memory regardless of the
+ * date range. Mood notes are left out of exports on purpose.
+ */
+@Service
+public class ReportExportService {
+
+    public static final List<String> DATASETS = List.of("mood", "assessments", "appointments", "feedback");
+    public static final List<String> FORMATS = List.of("csv", "ndjson");
+
+    // Default export window when no start date is given
+    public static final int DEFAULT_RANGE_DAYS = 30;
+
+    // Rows written between flushes of the response writer
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private static final Map<String, List<String>> COLUMNS = Map.of(
+            "mood", List.of("id", "studentId", "studentName", "moodScore", "createdAt"),
+            "assessments", List.of("id", "studentId", "studentName", "score", "stressLevel", "completedAt"),
+            "appointments", List.of("id", "studentId", "studentName", "counselorId", "counselorName",
+                    "appointmentDateTime", "status", "createdAt"),
+            "feedback", List.of("id", "userId", "userName", "type", "subject", "status", "createdAt"));
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private SelfAssessmentRepository selfAssessmentRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    /**
+     * Write one dataset for the days [from, to] to the writer and return the number of rows written.
+     * counselorId limits rows to that counselor's students (null = everyone); it does not apply to feedback.
+     */
+    @Transactional(readOnly = true)
+    public long export(String dataset, String format, LocalDate from, LocalDate to, Long counselorId, Writer out) {
+        List<String> columns = COLUMNS.get(dataset);
+        if (columns == null) {
+            throw new RuntimeException("Unknown dataset: " + dataset);
+        }
+        if (!FORMATS.contains(format)) {
+            throw new RuntimeException("Unknown format: " + format);
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        long counselor = counselorId != null ? counselorId : 0L;
+
+        boolean csv = "csv".equals(format);
+        long count = 0;
+        try (Stream<Object[]> rows = openStream(dataset, start, end, counselor)) {
+            if (csv) {
+                out.write(String.join(",", columns));
+                out.write("\r\n");
+            }
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                if (csv) {
+                    writeCsvRow(out, row);
+                } else {
+                    writeJsonRow(out, columns, row);
+                }
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    /**
+     * File name for an export, e.g. mood_2024-01-01_2024-12-31.csv
+     */
+    public static String fileName(String dataset, String format, LocalDate from, LocalDate to) {
+        return dataset + "_" + from + "_" + to + "." + format;
+    }
+
+    private Stream<Object[]> openStream(String dataset, LocalDateTime start, LocalDateTime end, long counselorId) {
+        return switch (dataset) {
+            case "mood" -> moodEntryRepository.streamForExport(start, end, counselorId);
+            case "assessments" -> selfAssessmentRepository.streamForExport(start, end, counselorId);
+            case "appointments" -> appointmentRepository.streamForExport(start, end, counselorId);
+            default -> feedbackRepository.streamForExport(start, end);
+        };
+    }
+
+    private void writeCsvRow(Writer out, Object[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(csvValue(row[i]));
+        }
+        out.write("\r\n");
+    }
+
+    private void writeJsonRow(Writer out, List<String> columns, Object[] row) throws IOException {
+        out.write('{');
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write('"');
+            out.write(columns.get(i));
+            out.write("\":");
+            out.write(jsonValue(row[i]));
+        }
+        out.write("}\n");
+    }
+
+    static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (value instanceof String && !s.isEmpty() && "=+-@".indexOf(s.charAt(0)) >= 0) {
+            // Keep spreadsheet apps from evaluating user-entered text as a formula
+            s = "'" + s;
+        }
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+
+    static String jsonValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String s = value.toString();
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.dto.ResourceCard;
+import com.example.MentalMind.repository.ResourceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the active resource catalog.
+ *
+ * The catalog is loaded with one card projection query (no content bodies)
+ * into an immutable snapshot holding the full list plus per-id, per-type and
+ * per-category indexes. ResourceService invalidates it on every write by
+ * bumping the catalog version (again after commit, so a reload that raced the
+ * transaction is not kept); the next read reloads.
+ * The version also identifies the catalog contents for HTTP caching.
+ */
+@Service
+public class ResourceCatalogService {
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    // Seeded from the clock so versions are not reused across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    private volatile Catalog catalog;
+
+    /**
+     * Current catalog version; changes whenever the catalog is invalidated
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Drop the cached catalog after a resource write
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        catalog = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                    catalog = null;
+                }
+            });
+        }
+    }
+
+    /**
+     * All active resources
+     */
+    public List<ResourceCard> getAll() {
+        return getCatalog().all;
+    }
+
+    /**
+     * Active resource with the given id, or null
+     */
+    public ResourceCard getById(Long id) {
+        return getCatalog().byId.get(id);
+    }
+
+    /**
+     * Active resources of a type
+     */
+    public List<ResourceCard> getByType(String type) {
+        return type == null ? List.of() : getCatalog().byType.getOrDefault(type.toLowerCase(Locale.ROOT), List.of());
+    }
+
+    /**
+     * Active resources of a category (case-insensitive)
+     */
+    public List<ResourceCard> getByCategory(String category) {
+        return category == null ? List.of()
+                : getCatalog().byCategory.getOrDefault(category.toLowerCase(Locale.ROOT), List.of());
+    }
+
+    /**
+     * Up to count distinct resources drawn uniformly at random from the categories' pools
+     */
+    public List<ResourceCard> sampleFromCategories(Collection<String> categories, int count) {
+        Catalog current = getCatalog();
+        List<List<ResourceCard>> pools = new ArrayList<>();
+        for (String category : categories) {
+            List<ResourceCard> pool = current.byCategory.get(category.toLowerCase(Locale.ROOT));
+            if (pool != null) {
+                pools.add(pool);
+            }
+        }
+        return sample(pools, count, Set.of());
+    }
+
+    /**
+     * Up to count resources drawn uniformly at random from the whole catalog, skipping the excluded ids
+     */
+    public List<ResourceCard> sampleAll(int count, Set<Long> excludedIds) {
+        return sample(List.of(getCatalog().all), count, excludedIds);
+    }
+
+    /**
+     * Reservoir sampling (Algorithm R) over several pools read in place
+     */
+    private List<ResourceCard> sample(List<List<ResourceCard>> pools, int count, Set<Long> excludedIds) {
+        List<ResourceCard> reservoir = new ArrayList<>(Math.max(0, count));
+        if (count <= 0) {
+            return reservoir;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Long> seen = new HashSet<>();
+        long eligible = 0;
+        for (List<ResourceCard> pool : pools) {
+            for (ResourceCard resource : pool) {
+                if (excludedIds.contains(resource.getId()) || !seen.add(resource.getId())) {
+                    continue;
+                }
+                eligible++;
+                if (reservoir.size() < count) {
+                    reservoir.add(resource);
+                } else {
+                    long j = random.nextLong(eligible);
+                    if (j < count) {
+                        reservoir.set((int) j, resource);
+                    }
+                }
+            }
+        }
+        return reservoir;
+    }
+
+    private Catalog getCatalog() {
+        Catalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (catalog != null) {
+                return catalog;
+            }
+            long loadVersion = version.get();
+            Catalog loaded = new Catalog(resourceRepository.findActiveCards());
+            // An invalidation during the load means the rows may already be stale; serve them once without caching
+            if (version.get() == loadVersion) {
+                catalog = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private static class Catalog {
+        private final List<ResourceCard> all;
+        private final Map<Long, ResourceCard> byId;
+        private final Map<String, List<ResourceCard>> byType;
+        private final Map<String, List<ResourceCard>> byCategory;
+
+        Catalog(List<ResourceCard> resources) {
+            this.all = List.copyOf(resources);
+            Map<Long, ResourceCard> ids = new HashMap<>();
+            for (ResourceCard resource : resources) {
+                ids.put(resource.getId(), resource);
+            }
+            this.byId = Map.copyOf(ids);
+            this.byType = group(resources, false);
+            this.byCategory = group(resources, true);
+        }
+
+        private static Map<String, List<ResourceCard>> group(List<ResourceCard> resources, boolean byCategory) {
+            Map<String, List<ResourceCard>> groups = new HashMap<>();
+            for (ResourceCard resource : resources) {
+                String key = byCategory ? resource.getCategory() : resource.getType();
+                if (key != null) {
+                    groups.computeIfAbsent(key.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(resource);
+                }
+            }
+            Map<String, List<ResourceCard>> frozen = new HashMap<>();
+            groups.forEach((key, list) -> frozen.put(key, List.copyOf(list)));
+            return Map.copyOf(frozen);
+        }
+    }
+}
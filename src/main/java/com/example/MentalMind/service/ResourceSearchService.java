@@ -0,0 +1,353 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.Resource;
+import com.example.MentalMind.repository.ResourceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process search index over active resources for typeahead search.
+ *
+ * Title, category, description and HTML-stripped content are tokenized into
+ * one weighted term list per resource. Terms live in a sorted map, so every
+ * query term also matches indexed terms it is a prefix of ("anx" finds
+ * "anxiety"), with exact matches ranked above prefix matches. All query
+ * terms must match. The index is built on first use and kept current by
+ * ResourceService's create, update and deactivate paths once their
+ * transactions commit. Rebuilds load a fresh index without holding the lock
+ * searches use and publish it with a single swap.
+ */
+@Service
+public class ResourceSearchService {
+
+    // Field weights applied to each term occurrence
+    private static final int TITLE_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    // Score factor for a query term that only matches as a prefix of an indexed term
+    private static final double PREFIX_FACTOR = 0.6;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    // Searches share the read lock; hook updates and the swap to a rebuilt index take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serializes rebuilds, including the first build triggered by a search
+    private final Object rebuildMonitor = new Object();
+
+    // Index in use, null until first built
+    private volatile Index index;
+
+    // Hook updates applied while a rebuild is loading, replayed onto the new index before it is published
+    private List<Consumer<Index>> updatesDuringRebuild;
+
+    /**
+     * Rebuild the whole index from the active resources; searches keep using the old index until the swap
+     */
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index fresh = null;
+            try {
+                fresh = buildIndex(resourceRepository.findByIsActiveTrue());
+            } finally {
+                publish(fresh);
+            }
+        }
+    }
+
+    /**
+     * Periodically rebuild the index from the database
+     */
+    @Scheduled(fixedDelay = 30, initialDelay = 30, timeUnit = TimeUnit.MINUTES)
+    public void reconcile() {
+        if (index != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Index resources into a new, unpublished index
+     */
+    static Index buildIndex(List<Resource> resources) {
+        Index fresh = new Index();
+        for (Resource resource : resources) {
+            fresh.put(resource.getId(), newDocument(resource));
+        }
+        return fresh;
+    }
+
+    /**
+     * Make an index the live one, after replaying hook updates that arrived while it was built.
+     * A null index (failed load) only ends the rebuild.
+     */
+    void publish(Index fresh) {
+        lock.writeLock().lock();
+        try {
+            if (fresh != null) {
+                if (updatesDuringRebuild != null) {
+                    updatesDuringRebuild.forEach(update -> update.accept(fresh));
+                }
+                index = fresh;
+            }
+            updatesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Write hooks =====
+    // Tokenizing happens when the hook is called; the index only changes after the write commits
+
+    /**
+     * Index a new resource or re-index a changed one; inactive resources are removed
+     */
+    public void onResourceSaved(Resource resource) {
+        Long resourceId = resource.getId();
+        IndexedResource doc = Boolean.TRUE.equals(resource.getIsActive()) ? newDocument(resource) : null;
+        afterCommit(current -> {
+            current.remove(resourceId);
+            if (doc != null) {
+                current.put(resourceId, doc);
+            }
+        });
+    }
+
+    /**
+     * Remove a deactivated resource from the index
+     */
+    public void onResourceRemoved(Long resourceId) {
+        afterCommit(current -> current.remove(resourceId));
+    }
+
+    private void afterCommit(Consumer<Index> update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    private void apply(Consumer<Index> update) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                update.accept(index);
+            }
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Reads =====
+
+    /**
+     * Ids of active resources matching every query term, best match first.
+     * type and category (case-insensitive) filter the results when not null.
+     */
+    public List<Long> search(String query, String type, String category, int limit) {
+        if (index == null) {
+            synchronized (rebuildMonitor) {
+                if (index == null) {
+                    rebuild();
+                }
+            }
+        }
+        Set<String> terms = new LinkedHashSet<>(tokenizeQuery(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return index.search(terms, type, category, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lowercased terms without stop words; no stemming, so prefixes stay literal
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : split(text)) {
+            if (!ForumSearchService.STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Split a typeahead query into terms. Stop words are dropped except from a last
+     * token still being typed, which is only ever matched as a prefix ("an" for "anxiety").
+     */
+    static List<String> tokenizeQuery(String query) {
+        List<String> tokens = split(query);
+        boolean typing = !tokens.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if ((typing && i == tokens.size() - 1) || !ForumSearchService.STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> split(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Text of an HTML fragment with tags and entities replaced by spaces
+     */
+    static String stripHtml(String html) {
+        if (html == null) {
+            return null;
+        }
+        return html.replaceAll("<[^>]*>", " ").replaceAll("&#?[a-zA-Z0-9]+;", " ");
+    }
+
+    private static IndexedResource newDocument(Resource resource) {
+        IndexedResource doc = new IndexedResource(resource.getType(), resource.getCategory());
+        addText(doc, resource.getTitle(), TITLE_WEIGHT);
+        addText(doc, resource.getCategory(), CATEGORY_WEIGHT);
+        addText(doc, resource.getDescription(), DESCRIPTION_WEIGHT);
+        addText(doc, stripHtml(resource.getContent()), CONTENT_WEIGHT);
+        return doc;
+    }
+
+    private static void addText(IndexedResource doc, String text, int weight) {
+        for (String term : tokenize(text)) {
+            doc.terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    static class Index {
+        // term -> resourceId -> weighted term frequency, sorted for prefix lookups
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+        // resourceId -> indexed resource
+        private final Map<Long, IndexedResource> documents = new HashMap<>();
+
+        List<Long> search(Set<String> terms, String type, String category, int limit) {
+            int docCount = Math.max(1, documents.size());
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                NavigableMap<String, Map<Long, Integer>> matches = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+                for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+                    Map<Long, Integer> postingList = match.getValue();
+                    double idf = Math.log(1 + (double) docCount / postingList.size());
+                    double factor = match.getKey().equals(term) ? 1.0 : PREFIX_FACTOR;
+                    postingList.forEach((resourceId, tf) -> {
+                        double score = idf * (1 + Math.log(tf)) * factor;
+                        // A query term expanding to several indexed terms counts its best match once
+                        termScores.merge(resourceId, score, Math::max);
+                    });
+                }
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        e.setValue(e.getValue() + termScores.get(e.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .filter(e -> matchesFilters(documents.get(e.getKey()), type, category))
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        private boolean matchesFilters(IndexedResource doc, String type, String category) {
+            return doc != null
+                    && (type == null || type.equalsIgnoreCase(doc.type))
+                    && (category == null || category.equalsIgnoreCase(doc.category));
+        }
+
+        void put(Long resourceId, IndexedResource doc) {
+            documents.put(resourceId, doc);
+            doc.terms.forEach((term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(resourceId, tf));
+        }
+
+        void remove(Long resourceId) {
+            IndexedResource doc = documents.remove(resourceId);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.terms.keySet()) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList != null) {
+                    postingList.remove(resourceId);
+                    if (postingList.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    // Immutable once indexed, so the same document can be put into the live and a rebuilding index
+    private static class IndexedResource {
+        private final String type;
+        private final String category;
+        private final Map<String, Integer> terms = new HashMap<>();
+
+        IndexedResource(String type, String category) {
+            this.type = type;
+            this.category = category;
+        }
+    }
+}
@@ -1,22 +1,25 @@
 package com.example.MentalMind.service;
 
+import com.example.MentalMind.dto.BookmarkedResourceCard;
+import com.example.MentalMind.dto.ResourceCard;
 import com.example.MentalMind.model.Resource;
-import com.example.MentalMind.model.User;
-import com.example.MentalMind.model.UserResourceBookmark;
 import com.example.MentalMind.repository.ResourceRepository;
-import com.example.MentalMind.repository.UserRepository;
 import com.example.MentalMind.repository.UserResourceBookmarkRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 
 @Service
 public class ResourceService {
@@ -25,30 +28,76 @@ public class ResourceService {
     private ResourceRepository resourceRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserResourceBookmarkRepository bookmarkRepository;
 
     @Autowired
-    private UserResourceBookmarkRepository bookmarkRepository;
+    private ResourceSearchService resourceSearchService;
+
+    @Autowired
+    private ResourceCatalogService resourceCatalogService;
+
+    // Maximum number of resources returned by a search
+    public static final int SEARCH_RESULT_LIMIT = 50;
 
     /**
-     * Get all active resources
+     * Get all active resources as cards (no content), from the catalog cache
      */
-    public List<Resource> getAllResources() {
-        return resourceRepository.findByIsActiveTrue();
+    public List<ResourceCard> getAllResources() {
+        return resourceCatalogService.getAll();
     }
 
     /**
      * Get resources by type
      */
-    public List<Resource> getResourcesByType(String type) {
-        return resourceRepository.findByTypeAndIsActiveTrue(type);
+    public List<ResourceCard> getResourcesByType(String type) {
+        return resourceCatalogService.getByType(type);
+    }
+
+    /**
+     * Search active resources by title, description, category and content, best match first
+     */
+    public List<ResourceCard> searchResources(String query) {
+        return searchResources(query, null, null);
+    }
+
+    /**
+     * Search active resources, optionally restricted to a type and/or category
+     */
+    public List<ResourceCard> searchResources(String query, String type, String category) {
+        List<ResourceCard> results = new ArrayList<>();
+        for (Long id : resourceSearchService.search(query, type, category, SEARCH_RESULT_LIMIT)) {
+            ResourceCard card = resourceCatalogService.getById(id);
+            if (card != null) {
+                results.add(card);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Active resources for the listing APIs: searched when a query is given,
+     * otherwise filtered by type and category ("all" or blank means no filter)
+     */
+    public List<ResourceCard> listResources(String type, String category, String query) {
+        String typeFilter = type != null && !type.isBlank() && !type.equals("all") ? type : null;
+        String categoryFilter = category != null && !category.isBlank() && !category.equals("all") ? category : null;
+        if (query != null && !query.trim().isEmpty()) {
+            return searchResources(query.trim(), typeFilter, categoryFilter);
+        }
+        if (categoryFilter == null) {
+            return typeFilter != null ? getResourcesByType(typeFilter) : getAllResources();
+        }
+        List<ResourceCard> resources = resourceCatalogService.getByCategory(categoryFilter);
+        return typeFilter == null ? resources : resources.stream()
+                .filter(r -> typeFilter.equalsIgnoreCase(r.getType()))
+                .toList();
     }
 
     /**
-     * Search resources by title
+     * Current catalog version, for conditional GETs of resource listings
      */
-    public List<Resource> searchResources(String query) {
-        return resourceRepository.findByTitleContainingIgnoreCaseAndIsActiveTrue(query);
+    public long getCatalogVersion() {
+        return resourceCatalogService.getVersion();
     }
 
     /**
@@ -59,41 +108,62 @@ public class ResourceService {
     }
 
     /**
-     * Get user's bookmarks
+     * Active listing for a user (see listResources), each card annotated with the user's bookmark
      */
-    public List<UserResourceBookmark> getUserBookmarks(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        // Only return bookmarks that point to active resources
-        return bookmarkRepository.findByUserAndIsActiveTrue(user)
-                .stream()
-                .filter(b -> b.getResource() != null && Boolean.TRUE.equals(b.getResource().getIsActive()))
-                .toList();
+    public List<BookmarkedResourceCard> listResourcesForUser(Long userId, String type, String category, String query) {
+        return annotate(listResources(type, category, query), getBookmarkStates(userId));
     }
 
     /**
-     * Add bookmark for user
+     * Annotate cards with bookmark types keyed by resource id
      */
-    @Transactional
-    public UserResourceBookmark addBookmark(Long userId, Long resourceId, String bookmarkType) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public List<BookmarkedResourceCard> annotate(List<ResourceCard> cards, Map<Long, String> bookmarkTypes) {
+        List<BookmarkedResourceCard> annotated = new ArrayList<>(cards.size());
+        for (ResourceCard card : cards) {
+            annotated.add(new BookmarkedResourceCard(card, bookmarkTypes.get(card.getId())));
+        }
+        return annotated;
+    }
 
-        Resource resource = resourceRepository.findById(resourceId)
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
+    /**
+     * Bookmark type per bookmarked active resource id for a user, newest bookmark first, from one join query
+     */
+    public Map<Long, String> getBookmarkStates(Long userId) {
+        Map<Long, String> states = new LinkedHashMap<>();
+        for (Object[] row : bookmarkRepository.findActiveBookmarkStates(userId)) {
+            states.put((Long) row[0], (String) row[1]);
+        }
+        return states;
+    }
 
-        // Remove any old inactive bookmark rows to avoid duplicates
-        bookmarkRepository.findByUserAndResource(user, resource)
-                .filter(b -> !Boolean.TRUE.equals(b.getIsActive()))
-                .ifPresent(bookmarkRepository::delete);
+    /**
+     * Get user's bookmarked active resources, newest bookmark first
+     */
+    public List<BookmarkedResourceCard> getUserBookmarks(Long userId) {
+        List<BookmarkedResourceCard> bookmarks = new ArrayList<>();
+        getBookmarkStates(userId).forEach((resourceId, bookmarkType) -> {
+            ResourceCard card = resourceCatalogService.getById(resourceId);
+            if (card != null) {
+                bookmarks.add(new BookmarkedResourceCard(card, bookmarkType));
+            }
+        });
+        return bookmarks;
+    }
 
-        // Check if bookmark already exists
-        if (bookmarkRepository.existsByUserAndResourceAndBookmarkTypeAndIsActiveTrue(user, resource, bookmarkType)) {
+    /**
+     * Add bookmark for user; a bookmark of another type on the same resource is switched to this type
+     */
+    @Transactional
+    public void addBookmark(Long userId, Long resourceId, String bookmarkType) {
+        if (bookmarkRepository.findActiveBookmarkType(userId, resourceId)
+                .filter(bookmarkType::equals)
+                .isPresent()) {
             throw new RuntimeException("Bookmark already exists");
         }
-
-        UserResourceBookmark bookmark = new UserResourceBookmark(user, resource, bookmarkType);
-        return bookmarkRepository.save(bookmark);
+        // Unique (user, resource) row: inserts, or revives an inactive row left by a deactivated resource
+        if (bookmarkRepository.upsertBookmark(userId, resourceId, bookmarkType, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Resource not found");
+        }
     }
 
     /**
@@ -101,18 +171,23 @@ public class ResourceService {
      */
     @Transactional
     public void removeBookmark(Long userId, Long resourceId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Resource resource = resourceRepository.findById(resourceId)
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
+        // Hard delete so the row is gone from DB
+        bookmarkRepository.deleteByUserIdAndResourceId(userId, resourceId);
+    }
 
-        Optional<UserResourceBookmark> bookmark = bookmarkRepository.findByUserAndResourceAndIsActiveTrue(user,
-                resource);
-        if (bookmark.isPresent()) {
-            // Hard delete so the row is gone from DB
-            bookmarkRepository.delete(bookmark.get());
+    /**
+     * One-time migration for databases created before bookmarks had a unique (user, resource) key,
+     * which ddl-auto cannot add while duplicates exist: keep one row per pair and add the key.
+     * Returns whether it ran.
+     */
+    @Transactional
+    public boolean addBookmarkUniqueKeyIfMissing() {
+        if (bookmarkRepository.countUserResourceUniqueKeys() > 0) {
+            return false;
         }
+        bookmarkRepository.deleteDuplicateBookmarks();
+        bookmarkRepository.addUserResourceUniqueKey();
+        return true;
     }
 
     /**
@@ -122,7 +197,10 @@ public class ResourceService {
     public Resource createResource(String title, String type, String description, String content,
             String icon, String gradientFrom, String gradientTo, String badgeColor) {
         Resource resource = new Resource(title, type, description, content, icon, gradientFrom, gradientTo, badgeColor);
-        return resourceRepository.save(resource);
+        Resource saved = resourceRepository.save(resource);
+        resourceSearchService.onResourceSaved(saved);
+        resourceCatalogService.invalidate();
+        return saved;
     }
 
     /**
@@ -133,7 +211,10 @@ public class ResourceService {
             String icon, String gradientFrom, String gradientTo, String badgeColor, String coverImageUrl) {
         Resource resource = new Resource(title, type, description, content, icon, gradientFrom, gradientTo, badgeColor,
                 coverImageUrl);
-        return resourceRepository.save(resource);
+        Resource saved = resourceRepository.save(resource);
+        resourceSearchService.onResourceSaved(saved);
+        resourceCatalogService.invalidate();
+        return saved;
     }
 
     /**
@@ -146,7 +227,10 @@ public class ResourceService {
         Resource resource = new Resource(title, type, description, content, icon, gradientFrom, gradientTo, badgeColor,
                 coverImageUrl);
         resource.setCategory(category);
-        return resourceRepository.save(resource);
+        Resource saved = resourceRepository.save(resource);
+        resourceSearchService.onResourceSaved(saved);
+        resourceCatalogService.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -155,13 +239,11 @@ public class ResourceService {
                 .orElseThrow(() -> new RuntimeException("Resource not found"));
         resource.setIsActive(false);
         resourceRepository.save(resource);
+        resourceSearchService.onResourceRemoved(id);
+        resourceCatalogService.invalidate();
 
         // Soft-delete related bookmarks so they disappear for users
-        List<UserResourceBookmark> bookmarks = bookmarkRepository.findByResourceAndIsActiveTrue(resource);
-        for (UserResourceBookmark b : bookmarks) {
-            b.setIsActive(false);
-            bookmarkRepository.save(b);
-        }
+        bookmarkRepository.deactivateByResourceId(id, LocalDateTime.now());
     }
 
     @Transactional
@@ -181,7 +263,10 @@ public class ResourceService {
         resource.setCategory(category);
         resource.setCoverImageUrl(coverImageUrl);
         resource.setUpdatedAt(java.time.LocalDateTime.now());
-        return resourceRepository.save(resource);
+        Resource saved = resourceRepository.save(resource);
+        resourceSearchService.onResourceSaved(saved);
+        resourceCatalogService.invalidate();
+        return saved;
     }
 
     /**
@@ -191,7 +276,7 @@ public class ResourceService {
      * @param count       number of resources to return
      * @return shuffled list of recommended resources
      */
-    public List<Resource> getRecommendedResources(String stressLevel, int count) {
+    public List<ResourceCard> getRecommendedResources(String stressLevel, int count) {
         List<String> categories;
 
         switch (stressLevel) {
@@ -203,28 +288,26 @@ public class ResourceService {
                 break;
             case "LOW":
             default:
-                // For LOW stress, return from all categories
-                List<Resource> allResources = new ArrayList<>(resourceRepository.findByIsActiveTrue());
-                Collections.shuffle(allResources);
-                return allResources.subList(0, Math.min(count, allResources.size()));
+                // For LOW stress, sample from all categories
+                List<ResourceCard> sampled = resourceCatalogService.sampleAll(count, Set.of());
+                Collections.shuffle(sampled);
+                return sampled;
         }
 
-        List<Resource> resources = new ArrayList<>(resourceRepository.findByCategoryInAndIsActiveTrue(categories));
+        // Sample from the priority categories' cached pools without copying them
+        List<ResourceCard> resources = resourceCatalogService.sampleFromCategories(categories, count);
 
-        // If not enough resources in priority categories, add from all
+        // If not enough resources in priority categories, fill up from the rest of the catalog
         if (resources.size() < count) {
-            List<Resource> allResources = resourceRepository.findByIsActiveTrue();
-            for (Resource r : allResources) {
-                if (!resources.contains(r)) {
-                    resources.add(r);
-                }
-                if (resources.size() >= count)
-                    break;
+            Set<Long> chosenIds = new HashSet<>();
+            for (ResourceCard r : resources) {
+                chosenIds.add(r.getId());
             }
+            resources.addAll(resourceCatalogService.sampleAll(count - resources.size(), chosenIds));
         }
 
         Collections.shuffle(resources);
-        return resources.subList(0, Math.min(count, resources.size()));
+        return resources;
     }
 
     /**
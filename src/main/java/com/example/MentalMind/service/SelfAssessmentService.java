@@ -1,6 +1,7 @@
 package com.example.MentalMind.service;
 
 import com.example.MentalMind.model.SelfAssessmentResult;
+import com.example.MentalMind.model.StressLevel;
 import com.example.MentalMind.model.User;
 import com.example.MentalMind.repository.SelfAssessmentRepository;
 import com.example.MentalMind.repository.UserRepository;
@@ -21,17 +22,17 @@ public class SelfAssessmentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
+    @Autowired
+    private StudentActivityService studentActivityService;
+
     /**
      * Calculate stress level based on PSS-10 score
      */
     public String calculateStressLevel(int score) {
-        if (score <= 13) {
-            return "LOW";
-        } else if (score <= 26) {
-            return "MODERATE";
-        } else {
-            return "HIGH";
-        }
+        return StressLevel.fromScore(score).name();
     }
 
     /**
@@ -44,7 +45,10 @@ public class SelfAssessmentService {
 
         String stressLevel = calculateStressLevel(score);
         SelfAssessmentResult result = new SelfAssessmentResult(user, score, stressLevel);
-        return selfAssessmentRepository.save(result);
+        SelfAssessmentResult saved = selfAssessmentRepository.save(result);
+        dashboardAggregateService.onAssessmentSaved(score);
+        studentActivityService.onAssessmentSaved(user, saved);
+        return saved;
     }
 
     /**
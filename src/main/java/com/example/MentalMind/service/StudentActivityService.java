@@ -0,0 +1,166 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.MoodEntry;
+import com.example.MentalMind.model.SelfAssessmentResult;
+import com.example.MentalMind.model.StudentActivitySnapshot;
+import com.example.MentalMind.model.User;
+import com.example.MentalMind.repository.MoodEntryRepository;
+import com.example.MentalMind.repository.SelfAssessmentRepository;
+import com.example.MentalMind.repository.StudentActivitySnapshotRepository;
+import com.example.MentalMind.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains the per-student StudentActivitySnapshot rows.
+ *
+ * Snapshots are updated incrementally from MoodService.logMood and
+ * SelfAssessmentService.saveResult, and can be rebuilt from history for
+ * students whose rows are missing or stale (e.g. data seeded directly).
+ */
+@Service
+public class StudentActivityService {
+
+    @Autowired
+    private StudentActivitySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private SelfAssessmentRepository selfAssessmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MoodStreakService moodStreakService;
+
+    /**
+     * Fold a newly logged or updated mood entry into the student's snapshot
+     */
+    @Transactional
+    public void onMoodLogged(User student, MoodEntry entry) {
+        StudentActivitySnapshot snapshot = findOrCreate(student);
+        LocalDateTime loggedAt = entry.getCreatedAt();
+        LocalDateTime lastMoodAt = snapshot.getLastMoodAt();
+
+        if (lastMoodAt == null) {
+            snapshot.setMoodStreak(1);
+        } else {
+            LocalDate entryDate = loggedAt.toLocalDate();
+            LocalDate lastDate = lastMoodAt.toLocalDate();
+            if (entryDate.isBefore(lastDate)) {
+                // Backdated entry; the snapshot already reflects a later day
+                return;
+            }
+            if (entryDate.isAfter(lastDate)) {
+                snapshot.setPreviousMoodScore(snapshot.getLastMoodScore());
+                snapshot.setMoodStreak(lastDate.equals(entryDate.minusDays(1)) ? snapshot.getMoodStreak() + 1 : 1);
+            }
+        }
+
+        snapshot.setLastMoodAt(loggedAt);
+        snapshot.setLastMoodScore(entry.getMoodScore());
+        snapshot.setMoodAverage7d(moodEntryRepository.getAverageMoodScoreSince(
+                student, loggedAt.toLocalDate().minusDays(6).atStartOfDay()));
+        snapshot.setLastActiveAt(latest(loggedAt, snapshot.getLastActiveAt()));
+        snapshot.setUpdatedAt(LocalDateTime.now());
+        snapshotRepository.save(snapshot);
+    }
+
+    /**
+     * Fold a newly saved self-assessment into the student's snapshot
+     */
+    @Transactional
+    public void onAssessmentSaved(User student, SelfAssessmentResult result) {
+        StudentActivitySnapshot snapshot = findOrCreate(student);
+        if (snapshot.getLastAssessmentAt() != null && result.getCompletedAt().isBefore(snapshot.getLastAssessmentAt())) {
+            return;
+        }
+        applyAssessment(snapshot, result);
+        snapshot.setLastActiveAt(latest(result.getCompletedAt(), snapshot.getLastActiveAt()));
+        snapshot.setUpdatedAt(LocalDateTime.now());
+        snapshotRepository.save(snapshot);
+    }
+
+    /**
+     * Recompute one student's snapshot from their full mood and assessment history
+     */
+    @Transactional
+    public StudentActivitySnapshot rebuildForStudent(User student) {
+        StudentActivitySnapshot snapshot = findOrCreate(student);
+
+        List<MoodEntry> recent = moodEntryRepository.findTop7ByUserOrderByCreatedAtDesc(student);
+        if (recent.isEmpty()) {
+            snapshot.setLastMoodAt(null);
+            snapshot.setLastMoodScore(null);
+            snapshot.setPreviousMoodScore(null);
+            snapshot.setMoodAverage7d(null);
+            snapshot.setMoodStreak(0);
+        } else {
+            MoodEntry last = recent.get(0);
+            LocalDate lastDate = last.getCreatedAt().toLocalDate();
+            snapshot.setLastMoodAt(last.getCreatedAt());
+            snapshot.setLastMoodScore(last.getMoodScore());
+            snapshot.setPreviousMoodScore(recent.stream()
+                    .filter(e -> e.getCreatedAt().toLocalDate().isBefore(lastDate))
+                    .map(MoodEntry::getMoodScore)
+                    .findFirst()
+                    .orElse(null));
+            snapshot.setMoodAverage7d(moodEntryRepository.getAverageMoodScoreSince(
+                    student, lastDate.minusDays(6).atStartOfDay()));
+            snapshot.setMoodStreak(moodStreakService.countStreakEndingAt(student, lastDate));
+        }
+
+        Optional<SelfAssessmentResult> latest = selfAssessmentRepository.findTopByUserOrderByCompletedAtDesc(student);
+        if (latest.isPresent()) {
+            applyAssessment(snapshot, latest.get());
+        } else {
+            snapshot.setLastAssessmentAt(null);
+            snapshot.setLastAssessmentScore(null);
+            snapshot.setLastStressLevel(null);
+            snapshot.setRiskRank(StudentActivitySnapshot.RISK_LOW);
+        }
+
+        snapshot.setLastActiveAt(latest(snapshot.getLastMoodAt(), snapshot.getLastAssessmentAt()));
+        snapshot.setUpdatedAt(LocalDateTime.now());
+        return snapshotRepository.save(snapshot);
+    }
+
+    /**
+     * Build snapshots for students that do not have one yet
+     */
+    @Transactional
+    public int rebuildMissing() {
+        List<User> missing = userRepository.findStudentsWithoutActivitySnapshot();
+        for (User student : missing) {
+            rebuildForStudent(student);
+        }
+        return missing.size();
+    }
+
+    private StudentActivitySnapshot findOrCreate(User student) {
+        return snapshotRepository.findByStudentId(student.getId())
+                .orElseGet(() -> new StudentActivitySnapshot(student));
+    }
+
+    private void applyAssessment(StudentActivitySnapshot snapshot, SelfAssessmentResult result) {
+        snapshot.setLastAssessmentAt(result.getCompletedAt());
+        snapshot.setLastAssessmentScore(result.getScore());
+        snapshot.setLastStressLevel(result.getStressLevel());
+        snapshot.setRiskRank(StudentActivitySnapshot.toRiskRank(result.getStressLevel()));
+    }
+
+    private LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+}
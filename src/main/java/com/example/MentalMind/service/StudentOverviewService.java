@@ -1,31 +1,23 @@
 package com.example.MentalMind.service;
 
-import com.example.MentalMind.model.MoodEntry;
-import com.example.MentalMind.model.SelfAssessmentResult;
-import com.example.MentalMind.model.User;
-import com.example.MentalMind.repository.MoodEntryRepository;
-import com.example.MentalMind.repository.SelfAssessmentRepository;
+import com.example.MentalMind.dto.StudentOverviewRow;
 import com.example.MentalMind.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class StudentOverviewService {
 
-    @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private SelfAssessmentRepository selfAssessmentRepository;
+    public static final int PAGE_SIZE = 25;
 
     @Autowired
-    private MoodEntryRepository moodEntryRepository;
+    private UserRepository userRepository;
 
     /**
      * Convenience overload with no filtering.
@@ -35,140 +27,132 @@ public class StudentOverviewService {
     }
 
     /**
-     * Build a simple overview list of student risk and recent activity
-     * for the counselor Students page, with optional search and filter.
+     * First page of the overview list with optional search and filter.
+     */
+    public List<Map<String, Object>> getStudentsOverview(String search, String filter) {
+        return getStudentsOverviewPage(search, filter, null, PAGE_SIZE).getStudents();
+    }
+
+    /**
+     * Build one page of the student risk and recent activity overview
+     * for the counselor Students page.
+     *
+     * Latest assessment, latest mood time and risk come from the student
+     * activity snapshot in a single query;
+     * search and filters run in the database. Rows are ordered by risk
+     * (HIGH, MODERATE, LOW) then student id, and the cursor is the
+     * (risk, id) of the last row of the previous page.
      *
      * @param search free-text search on name or email
      * @param filter filter key: null/empty = all, "high", "active", "followup"
+     * @param cursor opaque cursor from a previous page, or null for the first page
+     * @param pageSize maximum number of rows to return
      */
-    public List<Map<String, Object>> getStudentsOverview(String search, String filter) {
-        // Get all users with role "student"
-        List<User> students = userRepository.findAll().stream()
-                .filter(u -> "student".equalsIgnoreCase(u.getRole()))
-                .collect(Collectors.toList());
-
-        List<Map<String, Object>> result = new ArrayList<>();
+    public StudentOverviewPage getStudentsOverviewPage(String search, String filter, String cursor, int pageSize) {
+        String pattern = "%";
+        if (search != null && !search.trim().isEmpty()) {
+            pattern = "%" + escapeLike(search.trim().toLowerCase(Locale.ROOT)) + "%";
+        }
 
-        for (User student : students) {
-            Map<String, Object> row = new HashMap<>();
-            row.put("id", student.getId());
-            row.put("name", student.getFullName() != null ? student.getFullName() : student.getEmail());
-            row.put("email", student.getEmail());
-
-            // Latest self-assessment (if any)
-            Optional<SelfAssessmentResult> latestAssessmentOpt =
-                    selfAssessmentRepository.findTopByUserOrderByCompletedAtDesc(student);
-
-            String lastAssessmentLabel = "No assessment yet";
-            String lastAssessmentDate = "-";
-            String riskLevel = "LOW";
-
-            if (latestAssessmentOpt.isPresent()) {
-                SelfAssessmentResult assessment = latestAssessmentOpt.get();
-                lastAssessmentLabel = "Self-Assessment: " + assessment.getScore();
-                lastAssessmentDate = formatDate(assessment.getCompletedAt());
-                riskLevel = assessment.getStressLevel() != null
-                        ? assessment.getStressLevel().toUpperCase(Locale.ROOT)
-                        : "LOW";
+        int maxRiskRank = 2;
+        boolean activeOnly = false;
+        if (filter != null && !filter.trim().isEmpty()) {
+            switch (filter.trim().toLowerCase(Locale.ROOT)) {
+                case "high" -> maxRiskRank = 0;
+                // Pending follow-up: treat HIGH or MODERATE risk as needing follow-up
+                case "followup" -> maxRiskRank = 1;
+                // Active this week: last activity Today, Yesterday or <= 7 days ago
+                case "active" -> activeOnly = true;
+                default -> {
+                    // no-op for unknown filter
+                }
             }
+        }
+        LocalDateTime activeSince = LocalDateTime.now().minusDays(8);
+
+        int afterRank = -1;
+        long afterId = 0;
+        if (cursor != null && cursor.matches("\\d+-\\d+")) {
+            String[] parts = cursor.split("-");
+            afterRank = Integer.parseInt(parts[0]);
+            afterId = Long.parseLong(parts[1]);
+        }
 
-            row.put("lastAssessmentLabel", lastAssessmentLabel);
-            row.put("lastAssessmentDate", lastAssessmentDate);
-            row.put("riskLevel", riskLevel);
-            row.put("riskLabel", toRiskLabel(riskLevel));
-
-            // Last active (based on latest mood or assessment)
-            LocalDateTime lastActiveTime = null;
-
-            List<MoodEntry> moods = moodEntryRepository.findByUserId(student.getId());
-            if (!moods.isEmpty()) {
-                lastActiveTime = moods.get(0).getCreatedAt();
-            } else if (latestAssessmentOpt.isPresent()) {
-                lastActiveTime = latestAssessmentOpt.get().getCompletedAt();
-            }
+        // Fetch one extra row to know whether another page exists
+        List<StudentOverviewRow> rows = userRepository.findStudentOverviewPage(
+                pattern, maxRiskRank, activeOnly, activeSince, afterRank, afterId,
+                PageRequest.of(0, pageSize + 1));
 
-            String lastActiveLabel = lastActiveTime != null ? toRelativeTime(lastActiveTime) : "No activity";
-            row.put("lastActive", lastActiveLabel);
+        List<StudentOverviewRow> pageRows = rows;
+        boolean hasMore = pageRows.size() > pageSize;
+        if (hasMore) {
+            pageRows = pageRows.subList(0, pageSize);
+        }
 
-            result.add(row);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (StudentOverviewRow row : pageRows) {
+            result.add(toOverviewMap(row));
         }
 
-        // Apply search filter (by name or email)
-        if (search != null && !search.trim().isEmpty()) {
-            String query = search.trim().toLowerCase(Locale.ROOT);
-            result = result.stream()
-                    .filter(r -> {
-                        String name = Objects.toString(r.get("name"), "").toLowerCase(Locale.ROOT);
-                        String email = Objects.toString(r.get("email"), "").toLowerCase(Locale.ROOT);
-                        return name.contains(query) || email.contains(query);
-                    })
-                    .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            StudentOverviewRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = last.getRiskRank() + "-" + last.getId();
         }
+        return new StudentOverviewPage(result, nextCursor);
+    }
 
-        // Apply dropdown filter
-        if (filter != null && !filter.trim().isEmpty()) {
-            String f = filter.trim().toLowerCase(Locale.ROOT);
-            switch (f) {
-                case "high" -> {
-                    final String HIGH = "HIGH";
-                    result = result.stream()
-                            .filter(r -> HIGH.equalsIgnoreCase(Objects.toString(r.get("riskLevel"), "")))
-                            .collect(Collectors.toList());
-                }
-                case "active" -> {
-                    // Active this week: label Today, Yesterday or <= 7 days ago
-                    result = result.stream()
-                            .filter(r -> {
-                                String label = Objects.toString(r.get("lastActive"), "");
-                                if ("Today".equalsIgnoreCase(label) || "Yesterday".equalsIgnoreCase(label)) {
-                                    return true;
-                                }
-                                if (label.endsWith(" days ago")) {
-                                    try {
-                                        int days = Integer.parseInt(label.split(" ")[0]);
-                                        return days <= 7;
-                                    } catch (NumberFormatException ex) {
-                                        return false;
-                                    }
-                                }
-                                return false;
-                            })
-                            .collect(Collectors.toList());
-                }
-                case "followup" -> {
-                    // Pending follow-up: treat HIGH or MODERATE risk as needing follow-up
-                    result = result.stream()
-                            .filter(r -> {
-                                String risk = Objects.toString(r.get("riskLevel"), "");
-                                return "HIGH".equalsIgnoreCase(risk) || "MODERATE".equalsIgnoreCase(risk);
-                            })
-                            .collect(Collectors.toList());
-                }
-                default -> {
-                    // no-op for unknown filter
-                }
-            }
+    private Map<String, Object> toOverviewMap(StudentOverviewRow student) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", student.getId());
+        row.put("name", student.getFullName() != null ? student.getFullName() : student.getEmail());
+        row.put("email", student.getEmail());
+
+        // Latest self-assessment (if any)
+        String lastAssessmentLabel = "No assessment yet";
+        String lastAssessmentDate = "-";
+        String riskLevel = "LOW";
+
+        if (student.getLastAssessmentAt() != null) {
+            lastAssessmentLabel = "Self-Assessment: " + student.getLastScore();
+            lastAssessmentDate = formatDate(student.getLastAssessmentAt());
+            riskLevel = student.getStressLevel() != null
+                    ? student.getStressLevel().toUpperCase(Locale.ROOT)
+                    : "LOW";
         }
 
-        // Sort by risk (HIGH first, then MODERATE, then LOW)
-        result.sort((a, b) -> {
-            String riskA = (String) a.get("riskLevel");
-            String riskB = (String) b.get("riskLevel");
-            int riskOrderA = riskOrder(riskA);
-            int riskOrderB = riskOrder(riskB);
-            int cmp = Integer.compare(riskOrderA, riskOrderB);
-            if (cmp != 0) return cmp;
-            // keep existing order if same risk (no exact timestamp stored)
-            return 0;
-        });
-
-        return result;
+        row.put("lastAssessmentLabel", lastAssessmentLabel);
+        row.put("lastAssessmentDate", lastAssessmentDate);
+        row.put("riskLevel", riskLevel);
+        row.put("riskLabel", toRiskLabel(riskLevel));
+
+        // Last active (based on latest mood or assessment)
+        LocalDateTime lastActiveTime = student.getLastMoodAt() != null
+                ? student.getLastMoodAt()
+                : student.getLastAssessmentAt();
+
+        String lastActiveLabel = lastActiveTime != null ? toRelativeTime(lastActiveTime) : "No activity";
+        row.put("lastActive", lastActiveLabel);
+        return row;
     }
 
-    private int riskOrder(String risk) {
-        if ("HIGH".equalsIgnoreCase(risk)) return 0;
-        if ("MODERATE".equalsIgnoreCase(risk)) return 1;
-        return 2; // LOW or anything else
+    // Escape LIKE wildcards so search text is matched literally (escape character is '!')
+    private String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    public static class StudentOverviewPage {
+        private final List<Map<String, Object>> students;
+        private final String nextCursor;
+
+        public StudentOverviewPage(List<Map<String, Object>> students, String nextCursor) {
+            this.students = students;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Map<String, Object>> getStudents() { return students; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean hasMore() { return nextCursor != null; }
     }
 
     private String toRiskLabel(String risk) {
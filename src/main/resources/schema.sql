@@ -29,7 +29,42 @@ CREATE TABLE IF NOT EXISTS mood_entries (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_mood_user_created (user_id, created_at)
+);
+
+-- Create Mood Rollups Table (daily and weekly aggregates; student_id 0 = campus-wide)
+CREATE TABLE IF NOT EXISTS mood_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    granularity VARCHAR(8) NOT NULL,
+    student_id BIGINT NOT NULL,
+    bucket_start DATE NOT NULL,
+    entry_count INT NOT NULL,
+    score_sum BIGINT NOT NULL,
+    score_min INT,
+    score_max INT,
+    UNIQUE KEY uk_mood_rollup_bucket (granularity, student_id, bucket_start)
+);
+
+-- Create Student Activity Snapshots Table (one materialized activity and risk row per student)
+CREATE TABLE IF NOT EXISTS student_activity_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL UNIQUE,
+    last_mood_at TIMESTAMP NULL,
+    last_mood_score INT,
+    previous_mood_score INT,
+    mood_average7d DOUBLE,
+    mood_streak INT NOT NULL DEFAULT 0,
+    last_assessment_at TIMESTAMP NULL,
+    last_assessment_score INT,
+    last_stress_level VARCHAR(20),
+    risk_rank INT NOT NULL DEFAULT 2,
+    last_active_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    FOREIGN KEY (student_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_snapshot_last_mood (last_mood_at),
+    INDEX idx_snapshot_last_active (last_active_at),
+    INDEX idx_snapshot_risk (risk_rank, student_id)
 );
 
 -- Create Feedback Table
@@ -79,7 +114,9 @@ CREATE TABLE IF NOT EXISTS appointments (
     INDEX idx_student_id (student_id),
     INDEX idx_counselor_id (counselor_id),
     INDEX idx_status (status),
-    INDEX idx_appointment_date_time (appointment_date_time)
+    INDEX idx_appointment_date_time (appointment_date_time),
+    INDEX idx_appt_counselor_time_status (counselor_id, appointment_date_time, status),
+    INDEX idx_appt_student_time (student_id, appointment_date_time)
 );
 
 -- Create Learning Modules Table
@@ -143,13 +180,17 @@ CREATE TABLE IF NOT EXISTS forum_posts (
     status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
     moderation_note TEXT,
     like_count INT DEFAULT 0,
+    comment_count INT NOT NULL DEFAULT 0,
+    flag_count INT NOT NULL DEFAULT 0,
+    last_flagged_at TIMESTAMP NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_category (category),
     INDEX idx_status (status),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_forum_status_flags (status, flag_count, created_at)
 );
 
 -- Create Forum Comments Table
@@ -164,7 +205,8 @@ CREATE TABLE IF NOT EXISTS forum_comments (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_post_id (post_id),
     INDEX idx_user_id (user_id),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_comment_post_created (post_id, created_at, id)
 );
 
 -- Create Forum Post Likes Table (per-user likes)
@@ -180,4 +222,18 @@ CREATE TABLE IF NOT EXISTS forum_post_likes (
     INDEX idx_like_user_id (user_id)
 );
 
+-- Create User Resource Bookmarks Table (one bookmark per user and resource; resources is created by JPA)
+CREATE TABLE IF NOT EXISTS user_resource_bookmarks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    resource_id BIGINT NOT NULL,
+    bookmark_type VARCHAR(255) NOT NULL,
+    is_active BOOLEAN NOT NULL DEFAULT true,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    UNIQUE KEY uk_bookmark_user_resource (user_id, resource_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_bookmark_resource_id (resource_id)
+);
+
 COMMIT;
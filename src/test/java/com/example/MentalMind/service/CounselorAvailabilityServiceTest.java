@@ -0,0 +1,93 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.User;
+import com.example.MentalMind.repository.AppointmentRepository;
+import com.example.MentalMind.repository.CounselorSettingsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CounselorAvailabilityServiceTest {
+
+	// A Monday; default working hours are 09:00-17:00
+	private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+	@Mock
+	private AppointmentRepository appointmentRepository;
+
+	@Mock
+	private CounselorSettingsRepository settingsRepository;
+
+	@InjectMocks
+	private CounselorAvailabilityService service;
+
+	@Test
+	void sessionOccupiesItsQuarterHourUnits() {
+		User counselor = counselor(5L);
+		List<Object[]> rows = List.<Object[]>of(new Object[]{5L, MONDAY.atTime(10, 30)});
+		when(appointmentRepository.findOccupiedTimesByCounselor(any(), any(), any())).thenReturn(rows);
+
+		BitSet occupied = service.getOccupancy(counselor, MONDAY, MONDAY).get(MONDAY);
+
+		// 10:30-11:15 covers the units starting 10:30, 10:45 and 11:00
+		BitSet expected = new BitSet();
+		expected.set(42, 45);
+		assertEquals(expected, occupied);
+		assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(12, 0), LocalTime.of(13, 0), LocalTime.of(14, 0),
+				LocalTime.of(15, 0), LocalTime.of(16, 0)), service.getFreeSlotStarts(counselor, MONDAY));
+	}
+
+	@Test
+	void loadedDaysAreCachedUntilEvicted() {
+		User counselor = counselor(5L);
+
+		service.getOccupancy(counselor, MONDAY, MONDAY);
+		service.getOccupancy(counselor, MONDAY, MONDAY);
+		verify(appointmentRepository, times(1)).findOccupiedTimesByCounselor(any(), any(), any());
+
+		service.onAppointmentChanged(5L, MONDAY);
+		service.getOccupancy(counselor, MONDAY, MONDAY);
+		verify(appointmentRepository, times(2)).findOccupiedTimesByCounselor(any(), any(), any());
+	}
+
+	@Test
+	void dayLoadedAcrossAnEvictionIsServedButNotCached() {
+		User counselor = counselor(5L);
+		List<Object[]> rows = List.<Object[]>of(new Object[]{5L, MONDAY.atTime(9, 0)});
+		when(appointmentRepository.findOccupiedTimesByCounselor(any(), any(), any()))
+				.thenAnswer(invocation -> {
+					// A booking commits while the day is being read
+					service.onAppointmentChanged(5L, MONDAY);
+					return rows;
+				})
+				.thenReturn(rows);
+
+		BitSet first = service.getOccupancy(counselor, MONDAY, MONDAY).get(MONDAY);
+		assertTrue(first.get(36));
+
+		service.getOccupancy(counselor, MONDAY, MONDAY);
+		service.getOccupancy(counselor, MONDAY, MONDAY);
+		verify(appointmentRepository, times(2)).findOccupiedTimesByCounselor(any(), any(), any());
+	}
+
+	private User counselor(Long id) {
+		User counselor = new User();
+		counselor.setId(id);
+		return counselor;
+	}
+}
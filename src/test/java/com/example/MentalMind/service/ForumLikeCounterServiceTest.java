@@ -0,0 +1,79 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.repository.ForumPostRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ForumLikeCounterServiceTest {
+
+	@Mock
+	private ForumPostRepository forumPostRepository;
+
+	@InjectMocks
+	private ForumLikeCounterService service;
+
+	@Test
+	void likesAndUnlikesCoalescePerPost() {
+		service.record(1L, 1);
+		service.record(1L, 1);
+		service.record(2L, 1);
+		service.record(2L, -1);
+		service.record(3L, -1);
+
+		assertEquals(2L, service.getPending(1L));
+		assertEquals(0L, service.getPending(2L));
+		assertEquals(-1L, service.getPending(3L));
+
+		service.discard(1L);
+		assertEquals(0L, service.getPending(1L));
+	}
+
+	@Test
+	void flushWritesOneUpdatePerChangedPost() {
+		service.record(1L, 1);
+		service.record(1L, 1);
+		service.record(1L, 1);
+		service.record(2L, 1);
+		service.record(2L, -1);
+		service.record(3L, -1);
+
+		service.flush();
+
+		verify(forumPostRepository).addToLikeCount(1L, 3);
+		verify(forumPostRepository).addToLikeCount(3L, -1);
+		verifyNoMoreInteractions(forumPostRepository);
+		assertEquals(0L, service.getPending(1L));
+		assertEquals(0L, service.getPending(3L));
+
+		service.flush();
+		verifyNoMoreInteractions(forumPostRepository);
+	}
+
+	@Test
+	void failedFlushKeepsDeltaForNextFlush() {
+		when(forumPostRepository.addToLikeCount(eq(1L), anyInt()))
+				.thenThrow(new RuntimeException("database unavailable"))
+				.thenReturn(1);
+
+		service.record(1L, 1);
+		service.flush();
+		assertEquals(1L, service.getPending(1L));
+
+		service.record(1L, 1);
+		service.flush();
+		verify(forumPostRepository).addToLikeCount(1L, 1);
+		verify(forumPostRepository).addToLikeCount(1L, 2);
+		assertEquals(0L, service.getPending(1L));
+	}
+}
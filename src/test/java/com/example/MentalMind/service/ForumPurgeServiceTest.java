@@ -0,0 +1,95 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.repository.ForumCommentRepository;
+import com.example.MentalMind.repository.ForumPostFlagRepository;
+import com.example.MentalMind.repository.ForumPostLikeRepository;
+import com.example.MentalMind.repository.ForumPostRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ForumPurgeServiceTest {
+
+	@Mock
+	private ForumPostRepository forumPostRepository;
+
+	@Mock
+	private ForumCommentRepository forumCommentRepository;
+
+	@Mock
+	private ForumPostLikeRepository forumPostLikeRepository;
+
+	@Mock
+	private ForumPostFlagRepository forumPostFlagRepository;
+
+	@Mock
+	private ForumLikeCounterService forumLikeCounterService;
+
+	@Mock
+	private ForumSearchService forumSearchService;
+
+	@Mock
+	private ModerationQueueService moderationQueueService;
+
+	@InjectMocks
+	private ForumPurgeService service;
+
+	@Test
+	void purgeCountsRowsAcrossBatches() {
+		// Every post has two comments and one like; flags are left at zero
+		Answer<Integer> onePerPost = invocation -> invocation.<Collection<?>>getArgument(0).size();
+		Answer<Integer> twoPerPost = invocation -> 2 * invocation.<Collection<?>>getArgument(0).size();
+		when(forumPostRepository.deleteByIds(any())).thenAnswer(onePerPost);
+		when(forumCommentRepository.deleteByPostIds(any())).thenAnswer(twoPerPost);
+		when(forumPostLikeRepository.deleteByPostIds(any())).thenAnswer(onePerPost);
+
+		List<Long> ids = new ArrayList<>();
+		for (long id = 1; id <= 1200; id++) {
+			ids.add(id);
+		}
+		ids.add(1L);
+		ids.add(600L);
+
+		ForumPurgeService.PurgeReport report = service.purgePosts(ids);
+
+		assertEquals(1200, report.getPosts());
+		assertEquals(2400, report.getComments());
+		assertEquals(1200, report.getLikes());
+		assertEquals(0, report.getFlags());
+		verify(forumPostRepository, times(3)).deleteByIds(any());
+		verify(forumLikeCounterService, times(1200)).discard(anyLong());
+		verify(forumSearchService, times(1200)).onPostDeleted(anyLong());
+		verify(moderationQueueService).invalidateCounts();
+	}
+
+	@Test
+	void childRowsAreDeletedBeforeTheirPosts() {
+		List<Long> ids = List.of(4L, 5L);
+
+		service.purgePosts(ids);
+
+		InOrder order = inOrder(forumPostLikeRepository, forumCommentRepository, forumPostFlagRepository,
+				forumPostRepository);
+		order.verify(forumPostLikeRepository).deleteByPostIds(ids);
+		order.verify(forumCommentRepository).deleteByPostIds(ids);
+		order.verify(forumPostFlagRepository).deleteByPostIds(ids);
+		order.verify(forumPostRepository).deleteByIds(ids);
+	}
+}
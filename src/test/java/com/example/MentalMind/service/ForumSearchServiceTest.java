@@ -0,0 +1,69 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.ForumPost;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForumSearchServiceTest {
+
+	@Test
+	void stemStripsPluralsAndSuffixes() {
+		assertEquals("stress", ForumSearchService.stem("stressed"));
+		assertEquals("plan", ForumSearchService.stem("planned"));
+		assertEquals("study", ForumSearchService.stem("studies"));
+		assertEquals("worry", ForumSearchService.stem("worried"));
+		assertEquals("exam", ForumSearchService.stem("exams"));
+		assertEquals("anxious", ForumSearchService.stem("anxious"));
+	}
+
+	@Test
+	void tokenizeDropsStopWordsAndShortTokens() {
+		assertEquals(List.of("feel", "stress", "about", "exam"),
+				ForumSearchService.tokenize("I feel so stressed about the exams!"));
+		assertEquals(List.of(), ForumSearchService.tokenize(null));
+	}
+
+	@Test
+	void relatedPhrasesShareTerms() {
+		Set<String> shared = new HashSet<>(ForumSearchService.tokenize("anxious exams"));
+		shared.retainAll(ForumSearchService.tokenize("exam anxiety"));
+		assertTrue(shared.contains("exam"));
+	}
+
+	@Test
+	void searchRanksTitleMatchesFirstAndAppliesFilters() {
+		ForumSearchService service = new ForumSearchService();
+		service.publish(ForumSearchService.buildIndex(List.of(
+				post(1L, "Sleep schedule", "Trouble sleeping before exams", "APPROVED"),
+				post(2L, "Exam anxiety tips", "How I handle anxiety before exams", "APPROVED"),
+				post(3L, "Cooking on a budget", "Cheap recipes for students", "APPROVED"),
+				post(4L, "Exam anxiety again", "Pending post about exam anxiety", "PENDING")),
+				Map.of(3L, List.of("Cooking helps my exam stress"))));
+
+		List<Long> ids = service.search("exam anxiety", null, "APPROVED", 10).stream()
+				.map(ForumSearchService.SearchHit::getPostId)
+				.toList();
+
+		assertEquals(2L, ids.get(0));
+		assertTrue(ids.containsAll(List.of(1L, 3L)));
+		assertFalse(ids.contains(4L));
+	}
+
+	private ForumPost post(Long id, String title, String content, String status) {
+		ForumPost post = new ForumPost();
+		post.setId(id);
+		post.setTitle(title);
+		post.setContent(content);
+		post.setCategory("general");
+		post.setStatus(status);
+		return post;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.dto.ForumFeedItem;
+import com.example.MentalMind.model.ForumComment;
+import com.example.MentalMind.repository.ForumCommentRepository;
+import com.example.MentalMind.repository.ForumPostRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ForumServiceTest {
+
+	private static final LocalDateTime FEED_START_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+	private static final LocalDateTime THREAD_START_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	@Mock
+	private ForumPostRepository forumPostRepository;
+
+	@Mock
+	private ForumCommentRepository forumCommentRepository;
+
+	@InjectMocks
+	private ForumService forumService;
+
+	@Test
+	void timeCursorContinuesAfterLastPostOfPage() {
+		LocalDateTime lastTime = LocalDateTime.of(2026, 10, 17, 20, 15, 30);
+		ForumFeedItem last = mock(ForumFeedItem.class);
+		when(last.getId()).thenReturn(42L);
+		when(last.getCreatedAt()).thenReturn(lastTime);
+		List<ForumFeedItem> items = List.of(mock(ForumFeedItem.class), last, mock(ForumFeedItem.class));
+		when(forumPostRepository.findFeedByTime(eq(""), eq(0L), any(), anyLong(), any())).thenReturn(items);
+
+		ForumService.ForumFeedPage first = forumService.getFeedPage(null, "time", null, null, 2);
+		assertEquals(2, first.getPosts().size());
+		assertEquals("2026-10-17T20:15:30_42", first.getNextCursor());
+		verify(forumPostRepository).findFeedByTime("", 0L, FEED_START_TIME, Long.MAX_VALUE, PageRequest.of(0, 3));
+
+		forumService.getFeedPage("all", "time", null, first.getNextCursor(), 2);
+		verify(forumPostRepository).findFeedByTime("", 0L, lastTime, 42L, PageRequest.of(0, 3));
+	}
+
+	@Test
+	void likesCursorContinuesAfterLastPostOfPage() {
+		ForumFeedItem last = mock(ForumFeedItem.class);
+		when(last.getId()).thenReturn(5L);
+		when(last.getLikeCount()).thenReturn(12);
+		List<ForumFeedItem> firstItems = List.of(last, mock(ForumFeedItem.class));
+		List<ForumFeedItem> secondItems = List.of(mock(ForumFeedItem.class));
+		when(forumPostRepository.findFeedByLikes(eq("anxiety"), eq(7L), anyInt(), anyLong(), any()))
+				.thenReturn(firstItems)
+				.thenReturn(secondItems);
+
+		ForumService.ForumFeedPage first = forumService.getFeedPage("Anxiety", "likes", 7L, null, 1);
+		assertEquals("12_5", first.getNextCursor());
+		verify(forumPostRepository).findFeedByLikes("anxiety", 7L, Integer.MAX_VALUE, Long.MAX_VALUE, PageRequest.of(0, 2));
+
+		ForumService.ForumFeedPage second = forumService.getFeedPage("Anxiety", "likes", 7L, first.getNextCursor(), 1);
+		assertNull(second.getNextCursor());
+		verify(forumPostRepository).findFeedByLikes("anxiety", 7L, 12, 5L, PageRequest.of(0, 2));
+	}
+
+	@Test
+	void malformedCursorStartsFromFirstPage() {
+		for (String cursor : List.of("yesterday_3", "_3", "2026-10-17T20:15", "2026-10-17T20:15_x")) {
+			forumService.getFeedPage(null, "time", null, cursor, 2);
+		}
+		verify(forumPostRepository, times(4))
+				.findFeedByTime("", 0L, FEED_START_TIME, Long.MAX_VALUE, PageRequest.of(0, 3));
+
+		forumService.getFeedPage(null, "likes", null, "2026-10-17T20:15_42", 2);
+		verify(forumPostRepository).findFeedByLikes("", 0L, Integer.MAX_VALUE, Long.MAX_VALUE, PageRequest.of(0, 3));
+	}
+
+	@Test
+	void commentCursorContinuesAfterLastCommentOfPage() {
+		LocalDateTime lastTime = LocalDateTime.of(2026, 10, 18, 8, 5);
+		List<ForumComment> comments = List.of(
+				comment(8L, lastTime.minusMinutes(3)), comment(9L, lastTime), comment(11L, lastTime.plusMinutes(1)));
+		when(forumCommentRepository.findPageOldestFirst(eq(3L), any(), anyLong(), any())).thenReturn(comments);
+
+		ForumService.CommentPage first = forumService.getCommentPage(3L, false, null, 2);
+		assertEquals(2, first.getComments().size());
+		assertEquals("2026-10-18T08:05_9", first.getNextCursor());
+		verify(forumCommentRepository).findPageOldestFirst(3L, THREAD_START_TIME, 0L, PageRequest.of(0, 3));
+
+		forumService.getCommentPage(3L, false, first.getNextCursor(), 2);
+		verify(forumCommentRepository).findPageOldestFirst(3L, lastTime, 9L, PageRequest.of(0, 3));
+	}
+
+	@Test
+	void malformedCommentCursorStartsFromFirstPage() {
+		for (String cursor : List.of("9", "soon_9", "2026-10-18T08:05_x")) {
+			forumService.getCommentPage(3L, true, cursor, 2);
+		}
+		verify(forumCommentRepository, times(3))
+				.findPageNewestFirst(3L, FEED_START_TIME, Long.MAX_VALUE, PageRequest.of(0, 3));
+	}
+
+	private ForumComment comment(Long id, LocalDateTime createdAt) {
+		ForumComment comment = new ForumComment();
+		comment.setId(id);
+		comment.setCreatedAt(createdAt);
+		return comment;
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.repository.MoodEntryRepository;
+import com.example.MentalMind.repository.MoodRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class MoodRollupServiceTest {
+
+	// A Wednesday and the Monday that starts its week
+	private static final LocalDate DAY = LocalDate.of(2026, 10, 14);
+	private static final LocalDate WEEK = LocalDate.of(2026, 10, 12);
+
+	@Mock
+	private MoodRollupRepository moodRollupRepository;
+
+	@Mock
+	private MoodEntryRepository moodEntryRepository;
+
+	@InjectMocks
+	private MoodRollupService service;
+
+	@Test
+	void newEntryIsAddedToItsDayAndWeek() {
+		service.onMoodAdded(7L, LocalDateTime.of(2026, 10, 18, 22, 30), 4);
+
+		verify(moodRollupRepository).addEntry(7L, LocalDate.of(2026, 10, 18), WEEK, 4);
+	}
+
+	@Test
+	void sameDayOverwriteReplacesScoreBeforeRefreshingBounds() {
+		service.onMoodUpdated(7L, DAY.atTime(9, 30), 2, 5);
+
+		InOrder order = inOrder(moodRollupRepository, moodEntryRepository);
+		order.verify(moodRollupRepository).replaceScore(7L, DAY, WEEK, 2, 5);
+		order.verify(moodEntryRepository).flush();
+		order.verify(moodRollupRepository).refreshBounds(7L, DAY, WEEK, 2);
+	}
+
+	@Test
+	void overwriteWithSameScoreTouchesNothing() {
+		service.onMoodUpdated(7L, DAY.atTime(9, 30), 3, 3);
+
+		verifyNoInteractions(moodRollupRepository, moodEntryRepository);
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.MentalMind.service;
+
+import com.example.MentalMind.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceSearchServiceTest {
+
+	@Test
+	void tokenizeQueryKeepsStopWordOnlyWhileItIsBeingTyped() {
+		assertEquals(List.of("help", "me"), ResourceSearchService.tokenizeQuery("help me"));
+		assertEquals(List.of("help", "sl"), ResourceSearchService.tokenizeQuery("help me sl"));
+		assertEquals(List.of("help"), ResourceSearchService.tokenizeQuery("help me "));
+		assertEquals(List.of("an"), ResourceSearchService.tokenizeQuery("an"));
+		assertEquals(List.of(), ResourceSearchService.tokenizeQuery(null));
+	}
+
+	@Test
+	void stopWordPrefixesMatchIndexedTerms() {
+		ResourceSearchService service = new ResourceSearchService();
+		service.publish(ResourceSearchService.buildIndex(List.of(
+				resource(1L, "Understanding Anxiety", "Anxiety", "Why anxiety happens"),
+				resource(2L, "Meditation Basics", "Mindfulness", "Ten minutes a day"),
+				resource(3L, "Insomnia and Sleep", "Sleep", "Better rest in a week"))));
+
+		assertEquals(List.of(1L), service.search("an", null, null, 10));
+		assertEquals(List.of(2L), service.search("me", null, null, 10));
+		assertEquals(List.of(3L), service.search("in", null, null, 10));
+		assertEquals(List.of(3L), service.search("sleep in", null, null, 10));
+		assertTrue(service.search("an", "video", null, 10).isEmpty());
+	}
+
+	private Resource resource(Long id, String title, String category, String description) {
+		Resource resource = new Resource();
+		resource.setId(id);
+		resource.setTitle(title);
+		resource.setType("article");
+		resource.setCategory(category);
+		resource.setDescription(description);
+		resource.setContent("<p>" + description + "</p>");
+		return resource;
+	}
+}